@@ -15,13 +15,34 @@ package timingtest;
 */
 
 public class AList<Item> {
+    private static final int DEFAULT_CAPACITY = 100;
+    private static final double DEFAULT_GROWTH_FACTOR = 2.0;
+    /** removeLast() never shrinks the array below this length. */
+    private static final int MIN_CAPACITY = 16;
+
     private Item[] items;
     private int size;
+    private final double growthFactor;
 
     /** Creates an empty list. */
     public AList() {
-        items = (Item[]) new Object[100];
+        this(DEFAULT_CAPACITY, DEFAULT_GROWTH_FACTOR);
+    }
+
+    /** Creates an empty list whose array grows by GROWTHFACTOR when full. */
+    public AList(double growthFactor) {
+        this(DEFAULT_CAPACITY, growthFactor);
+    }
+
+    /** Creates an empty list with room for CAPACITY items whose array
+     *  grows by GROWTHFACTOR when full. */
+    public AList(int capacity, double growthFactor) {
+        if (capacity < 0 || !(growthFactor > 1.0)) {
+            throw new IllegalArgumentException("capacity " + capacity + ", growth factor " + growthFactor);
+        }
+        items = (Item[]) new Object[capacity];
         size = 0;
+        this.growthFactor = growthFactor;
     }
 
     /** Resizes the underlying array to the target capacity. */
@@ -31,16 +52,48 @@ public class AList<Item> {
         items = a;
     }
 
+    /** Makes sure the array can hold at least MINCAPACITY items. Grows it
+     *  geometrically, so that repeated calls cost amortized constant time. */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > items.length) {
+            long grown = (long) (items.length * growthFactor);
+            resize((int) Math.min(Integer.MAX_VALUE - 8, Math.max(minCapacity, grown)));
+        }
+    }
+
+    /** Shrinks the array to exactly size() items. */
+    public void trimToSize() {
+        if (size < items.length) {
+            resize(size);
+        }
+    }
+
     /** Inserts X into the back of the list. */
     public void addLast(Item x) {
         if (size == items.length) {
-            resize(size + 1);
+            ensureCapacity(size + 1);
         }
 
         items[size] = x;
         size = size + 1;
     }
 
+    /** Inserts the items of XS, in order, into the back of the list. */
+    public void addAll(Item[] xs) {
+        ensureCapacity(size + xs.length);
+        System.arraycopy(xs, 0, items, size, xs.length);
+        size = size + xs.length;
+    }
+
+    /** Inserts the items of OTHER, in order, into the back of the list.
+     *  OTHER may be this list. */
+    public void addAll(AList<Item> other) {
+        int n = other.size;
+        ensureCapacity(size + n);
+        System.arraycopy(other.items, 0, items, size, n);
+        size = size + n;
+    }
+
     /** Returns the item from the back of the list. */
     public Item getLast() {
         return items[size - 1];
@@ -55,12 +108,22 @@ public class AList<Item> {
         return size;
     }
 
+    /** Returns the length of the underlying array. */
+    public int capacity() {
+        return items.length;
+    }
+
     /** Deletes item from back of the list and
-      * returns deleted item. */
+      * returns deleted item. Halves the array once it is less than a
+      * quarter full, which still leaves room to grow before the next
+      * resize. */
     public Item removeLast() {
         Item x = getLast();
         items[size - 1] = null;
         size = size - 1;
+        if (size < items.length / 4 && items.length > MIN_CAPACITY) {
+            resize(Math.max(MIN_CAPACITY, items.length / 2));
+        }
         return x;
     }
 }
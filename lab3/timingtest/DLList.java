@@ -0,0 +1,126 @@
+package timingtest;
+
+/** A DLList is a doubly linked list. Every node knows both of its
+ * neighbors, and a single circular sentinel is both the node before the
+ * first item and the node after the last, so adding and removing at
+ * either end, including removeLast, take constant time.
+ *
+ * Like SLList, a pooled DLList recycles up to MAX_POOL removed nodes. */
+public class DLList<Item> {
+	/** The most freed nodes a pooled list holds on to. */
+	private static final int MAX_POOL = 1024;
+
+	private class IntNode {
+		public Item item;
+		public IntNode prev;
+		public IntNode next;
+
+		public IntNode(Item i, IntNode p, IntNode n) {
+			item = i;
+			prev = p;
+			next = n;
+		}
+	}
+
+	/* The first item (if it exists) is at sentinel.next and the last at
+	 * sentinel.prev. */
+	private IntNode sentinel;
+	private int size;
+	private final boolean pooled;
+	/* Freed nodes, chained through next. */
+	private IntNode pool;
+	private int poolSize;
+
+	/** Creates an empty DLList. */
+	public DLList() {
+		this(false);
+	}
+
+	/** Creates an empty list that recycles its nodes if POOLED is true. */
+	public DLList(boolean pooled) {
+		sentinel = new IntNode(null, null, null);
+		sentinel.prev = sentinel;
+		sentinel.next = sentinel;
+		size = 0;
+		this.pooled = pooled;
+	}
+
+	/** Links a node holding X in between P and N. */
+	private void insertBetween(Item x, IntNode p, IntNode n) {
+		IntNode node;
+		if (pool == null) {
+			node = new IntNode(x, p, n);
+		} else {
+			node = pool;
+			pool = node.next;
+			poolSize = poolSize - 1;
+			node.item = x;
+			node.prev = p;
+			node.next = n;
+		}
+		p.next = node;
+		n.prev = node;
+		size = size + 1;
+	}
+
+	/** Unlinks P, which must not be the sentinel, and returns its item. */
+	private Item unlink(IntNode p) {
+		p.prev.next = p.next;
+		p.next.prev = p.prev;
+		size = size - 1;
+		Item x = p.item;
+		p.item = null;
+		p.prev = null;
+		if (pooled && poolSize < MAX_POOL) {
+			p.next = pool;
+			pool = p;
+			poolSize = poolSize + 1;
+		} else {
+			p.next = null;
+		}
+		return x;
+	}
+
+	/** Adds x to the front of the list. */
+	public void addFirst(Item x) {
+		insertBetween(x, sentinel, sentinel.next);
+	}
+
+	/** Adds x to the end of the list. */
+	public void addLast(Item x) {
+		insertBetween(x, sentinel.prev, sentinel);
+	}
+
+	/** Returns the first item in the list, or null if it is empty. */
+	public Item getFirst() {
+		return sentinel.next.item;
+	}
+
+	/** Returns the last item in the list, or null if it is empty. */
+	public Item getLast() {
+		return sentinel.prev.item;
+	}
+
+	/** Removes and returns the first item, or returns null if the list
+	 *  is empty. */
+	public Item removeFirst() {
+		if (size == 0) {
+			return null;
+		}
+		return unlink(sentinel.next);
+	}
+
+	/** Removes and returns the last item, or returns null if the list
+	 *  is empty. */
+	public Item removeLast() {
+		if (size == 0) {
+			return null;
+		}
+		return unlink(sentinel.prev);
+	}
+
+	/** Returns the size of the list. */
+	public int size() {
+		return size;
+	}
+}
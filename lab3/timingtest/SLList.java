@@ -1,8 +1,16 @@
 package timingtest;
 
 /** An SLList is a list of integers, which hides the terrible truth
- * of the nakedness within. */
+ * of the nakedness within.
+ *
+ * A reference to the last node makes addLast and getLast constant time.
+ * A pooled list keeps up to MAX_POOL nodes freed by removeFirst and
+ * reuses them for later adds, so a list used as a queue or stack stops
+ * allocating once it has reached its working size. */
 public class SLList<Item> {
+	/** The most freed nodes a pooled list holds on to. */
+	private static final int MAX_POOL = 1024;
+
 	private class IntNode {
 		public Item item;
 		public IntNode next;
@@ -15,26 +23,83 @@ public class SLList<Item> {
 
 	/* The first item (if it exists) is at sentinel.next. */
 	private IntNode sentinel;
+	/* The last node, which is the sentinel if the list is empty. */
+	private IntNode last;
 	private int size;
+	private final boolean pooled;
+	/* Freed nodes, chained through next. */
+	private IntNode pool;
+	private int poolSize;
 
 	/** Creates an empty timingtest.SLList. */
 	public SLList() {
+		this(false);
+	}
+
+	/** Creates an empty list that recycles its nodes if POOLED is true. */
+	public SLList(boolean pooled) {
 		sentinel = new IntNode(null, null);
+		last = sentinel;
 		size = 0;
+		this.pooled = pooled;
 	}
 
 	public SLList(Item x) {
-		sentinel = new IntNode(null, null);
-		sentinel.next = new IntNode(x, null);
-		size = 1;
+		this(false);
+		addLast(x);
+	}
+
+	/** Returns a node holding I and N, reusing a pooled one if possible. */
+	private IntNode newNode(Item i, IntNode n) {
+		if (pool == null) {
+			return new IntNode(i, n);
+		}
+		IntNode p = pool;
+		pool = p.next;
+		poolSize = poolSize - 1;
+		p.item = i;
+		p.next = n;
+		return p;
+	}
+
+	/** Returns P to the pool, if this list is pooled and the pool has room. */
+	private void freeNode(IntNode p) {
+		p.item = null;
+		if (pooled && poolSize < MAX_POOL) {
+			p.next = pool;
+			pool = p;
+			poolSize = poolSize + 1;
+		} else {
+			p.next = null;
+		}
 	}
 
 	/** Adds x to the front of the list. */
 	public void addFirst(Item x) {
-		sentinel.next = new IntNode(x, sentinel.next);
+		sentinel.next = newNode(x, sentinel.next);
+		if (last == sentinel) {
+			last = sentinel.next;
+		}
 		size = size + 1;
 	}
 
+	/** Removes and returns the first item, or returns null if the list
+	 *  is empty. */
+	public Item removeFirst() {
+		IntNode first = sentinel.next;
+		if (first == null) {
+			return null;
+		}
+		sentinel.next = first.next;
+		if (last == first) {
+			last = sentinel;
+		}
+		size = size - 1;
+		Item x = first.item;
+		freeNode(first);
+		return x;
+	}
+
 	/** Returns the first item in the list. */
 	public Item getFirst() {
 		return sentinel.next.item;
@@ -43,27 +108,13 @@ public class SLList<Item> {
 	/** Adds x to the end of the list. */
 	public void addLast(Item x) {
 		size = size + 1;
-
-		IntNode p = sentinel;
-
-		/* Advance p to the end of the list. */
-		while (p.next != null) {
-			p = p.next;
-		}
-
-		p.next = new IntNode(x, null);
+		last.next = newNode(x, null);
+		last = last.next;
 	}
 
 	/** returns last item in the list */
 	public Item getLast() {
-		IntNode p = sentinel;
-
-		/* Advance p to the end of the list. */
-		while (p.next != null) {
-			p = p.next;
-		}
-
-		return p.item;
+		return last.item;
 	}
 
 
@@ -0,0 +1,49 @@
+package timingtest;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/** Tests the resizing and bulk operations of AList. */
+public class TestAList {
+
+    @Test
+    public void testGrowAndShrink() {
+        AList<Integer> L = new AList<>(1, 1.5);
+        for (int i = 0; i < 10000; i += 1) {
+            L.addLast(i);
+            assertTrue(L.capacity() >= L.size());
+        }
+        assertTrue("growth should be geometric", L.capacity() < 10000 * 1.5 + 1);
+        for (int i = 9999; i >= 10; i -= 1) {
+            assertEquals(i, (int) L.removeLast());
+            assertTrue("usage fell below 25%", L.size() >= L.capacity() / 4 || L.capacity() <= 16);
+        }
+        assertEquals(10, L.size());
+        assertEquals(9, (int) L.getLast());
+    }
+
+    @Test
+    public void testBulkOperations() {
+        AList<Integer> L = new AList<>();
+        L.addAll(new Integer[] {1, 2, 3});
+        L.addAll(L);
+        assertEquals(6, L.size());
+        for (int i = 0; i < 6; i += 1) {
+            assertEquals(i % 3 + 1, (int) L.get(i));
+        }
+        L.trimToSize();
+        assertEquals(6, L.capacity());
+        L.ensureCapacity(1000);
+        assertTrue(L.capacity() >= 1000);
+        assertEquals(3, (int) L.getLast());
+
+        AList<Integer> empty = new AList<>(0, 2.0);
+        empty.addLast(7);
+        assertEquals(7, (int) empty.get(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadGrowthFactor() {
+        new AList<Integer>(1.0);
+    }
+}
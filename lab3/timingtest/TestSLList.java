@@ -0,0 +1,80 @@
+package timingtest;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+/** Tests SLList and DLList against java.util.ArrayDeque. */
+public class TestSLList {
+
+    @Test
+    public void testSLListRandomized() {
+        for (boolean pooled : new boolean[] {false, true}) {
+            SLList<Integer> L = new SLList<>(pooled);
+            ArrayDeque<Integer> expected = new ArrayDeque<>();
+            Random r = new Random(61);
+            for (int i = 0; i < 100000; i += 1) {
+                int op = r.nextInt(3);
+                if (op == 0) {
+                    L.addFirst(i);
+                    expected.addFirst(i);
+                } else if (op == 1) {
+                    L.addLast(i);
+                    expected.addLast(i);
+                } else {
+                    assertEquals(expected.pollFirst(), L.removeFirst());
+                }
+                assertEquals(expected.size(), L.size());
+                assertEquals(expected.peekLast(), L.getLast());
+            }
+        }
+    }
+
+    @Test
+    public void testDLListRandomized() {
+        for (boolean pooled : new boolean[] {false, true}) {
+            DLList<Integer> L = new DLList<>(pooled);
+            ArrayDeque<Integer> expected = new ArrayDeque<>();
+            Random r = new Random(61);
+            for (int i = 0; i < 100000; i += 1) {
+                int op = r.nextInt(4);
+                if (op == 0) {
+                    L.addFirst(i);
+                    expected.addFirst(i);
+                } else if (op == 1) {
+                    L.addLast(i);
+                    expected.addLast(i);
+                } else if (op == 2) {
+                    assertEquals(expected.pollFirst(), L.removeFirst());
+                } else {
+                    assertEquals(expected.pollLast(), L.removeLast());
+                }
+                assertEquals(expected.size(), L.size());
+                assertEquals(expected.peekFirst(), L.getFirst());
+                assertEquals(expected.peekLast(), L.getLast());
+            }
+        }
+    }
+
+    @Test
+    public void testPooledQueueDoesNotAllocate() {
+        com.sun.management.ThreadMXBean bean =
+            (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+        SLList<Integer> L = new SLList<>(true);
+        Integer x = 61;
+        for (int i = 0; i < 100; i += 1) {
+            L.addLast(x);
+        }
+        for (int i = 0; i < 200000; i += 1) {
+            L.addLast(L.removeFirst());
+        }
+        long before = bean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 1000000; i += 1) {
+            L.addLast(L.removeFirst());
+        }
+        long allocated = bean.getCurrentThreadAllocatedBytes() - before;
+        assertTrue("allocated " + allocated + " bytes", allocated < 100000);
+    }
+}
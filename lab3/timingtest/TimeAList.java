@@ -21,7 +21,22 @@ public class TimeAList {
         timeAListConstruction();
     }
 
+    /** Times building lists of N items with addLast. Geometric resizing
+     *  keeps the time per operation flat as N grows. */
     public static void timeAListConstruction() {
-        // TODO: YOUR CODE HERE
+        AList<Integer> Ns = new AList<>();
+        AList<Double> times = new AList<>();
+        AList<Integer> opCounts = new AList<>();
+        for (int N = 1000; N <= 2048000; N *= 2) {
+            Stopwatch sw = new Stopwatch();
+            AList<Integer> L = new AList<>();
+            for (int i = 0; i < N; i += 1) {
+                L.addLast(i);
+            }
+            Ns.addLast(N);
+            times.addLast(sw.elapsedTime());
+            opCounts.addLast(N);
+        }
+        printTimingTable(Ns, times, opCounts);
     }
 }
@@ -21,8 +21,27 @@ public class TimeSLList {
         timeGetLast();
     }
 
+    /** Times M = 10000 getLast calls on lists of N items. With a tail
+     *  reference the time per call no longer grows with N. */
     public static void timeGetLast() {
-        // TODO: YOUR CODE HERE
+        AList<Integer> Ns = new AList<>();
+        AList<Double> times = new AList<>();
+        AList<Integer> opCounts = new AList<>();
+        int M = 10000;
+        for (int N = 1000; N <= 1024000; N *= 2) {
+            SLList<Integer> L = new SLList<>();
+            for (int i = 0; i < N; i += 1) {
+                L.addLast(i);
+            }
+            Stopwatch sw = new Stopwatch();
+            for (int i = 0; i < M; i += 1) {
+                L.getLast();
+            }
+            Ns.addLast(N);
+            times.addLast(sw.elapsedTime());
+            opCounts.addLast(M);
+        }
+        printTimingTable(Ns, times, opCounts);
     }
 
 }
@@ -0,0 +1,449 @@
+package bstmap;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A Map61B backed by a left-leaning red-black tree, a binary search tree
+ * kept balanced by the rotations of a 2-3 tree. Its height never exceeds
+ * 2 lg N, so put, get and remove are O(log N) even for sorted input, which
+ * degenerates a plain BST into a linked list.
+ *
+ * put and remove recurse along a single root-to-leaf path, so their stack
+ * depth is bounded by the height; get and iteration are fully iterative.
+ * Every node records the size of its subtree, which makes rank and select
+ * O(log N) as well.
+ *
+ * Assumes null keys will never be inserted.
+ */
+public class BSTMap<K extends Comparable<K>, V> implements OrderedMap61B<K, V> {
+
+    private static final boolean RED = true;
+    private static final boolean BLACK = false;
+
+    /** A tree node. Its color is that of the link from its parent. */
+    private class Node {
+        K key;
+        V value;
+        Node left;
+        Node right;
+        boolean color;
+        /** Number of nodes in the subtree rooted here. */
+        int size;
+
+        Node(K k, V v) {
+            key = k;
+            value = v;
+            color = RED;
+            size = 1;
+        }
+    }
+
+    private Node root;
+
+    /** Creates an empty map. */
+    public BSTMap() {
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return find(key) != null;
+    }
+
+    @Override
+    public V get(K key) {
+        Node n = find(key);
+        return n == null ? null : n.value;
+    }
+
+    /** Returns the node holding KEY, or null. */
+    private Node find(K key) {
+        Node x = root;
+        while (x != null) {
+            int cmp = key.compareTo(x.key);
+            if (cmp < 0) {
+                x = x.left;
+            } else if (cmp > 0) {
+                x = x.right;
+            } else {
+                return x;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    private int size(Node x) {
+        return x == null ? 0 : x.size;
+    }
+
+    private boolean isRed(Node x) {
+        return x != null && x.color == RED;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        root = put(root, key, value);
+        root.color = BLACK;
+    }
+
+    private Node put(Node h, K key, V value) {
+        if (h == null) {
+            return new Node(key, value);
+        }
+        int cmp = key.compareTo(h.key);
+        if (cmp < 0) {
+            h.left = put(h.left, key, value);
+        } else if (cmp > 0) {
+            h.right = put(h.right, key, value);
+        } else {
+            h.value = value;
+        }
+        return balance(h);
+    }
+
+    /* ------------------------------- Removal ------------------------------- */
+
+    @Override
+    public V remove(K key) {
+        Node n = find(key);
+        if (n == null) {
+            return null;
+        }
+        V old = n.value;
+        delete(key);
+        return old;
+    }
+
+    @Override
+    public V remove(K key, V value) {
+        Node n = find(key);
+        if (n == null || (n.value == null ? value != null : !n.value.equals(value))) {
+            return null;
+        }
+        V old = n.value;
+        delete(key);
+        return old;
+    }
+
+    /** Deletes KEY, which must be present. */
+    private void delete(K key) {
+        if (!isRed(root.left) && !isRed(root.right)) {
+            root.color = RED;
+        }
+        root = delete(root, key);
+        if (root != null) {
+            root.color = BLACK;
+        }
+    }
+
+    private Node delete(Node h, K key) {
+        if (key.compareTo(h.key) < 0) {
+            if (!isRed(h.left) && !isRed(h.left.left)) {
+                h = moveRedLeft(h);
+            }
+            h.left = delete(h.left, key);
+        } else {
+            if (isRed(h.left)) {
+                h = rotateRight(h);
+            }
+            if (key.compareTo(h.key) == 0 && h.right == null) {
+                return null;
+            }
+            if (!isRed(h.right) && !isRed(h.right.left)) {
+                h = moveRedRight(h);
+            }
+            if (key.compareTo(h.key) == 0) {
+                Node min = h.right;
+                while (min.left != null) {
+                    min = min.left;
+                }
+                h.key = min.key;
+                h.value = min.value;
+                h.right = deleteMin(h.right);
+            } else {
+                h.right = delete(h.right, key);
+            }
+        }
+        return balance(h);
+    }
+
+    private Node deleteMin(Node h) {
+        if (h.left == null) {
+            return null;
+        }
+        if (!isRed(h.left) && !isRed(h.left.left)) {
+            h = moveRedLeft(h);
+        }
+        h.left = deleteMin(h.left);
+        return balance(h);
+    }
+
+    /* ------------------------------- Rebalancing ------------------------------- */
+
+    private Node rotateLeft(Node h) {
+        Node x = h.right;
+        h.right = x.left;
+        x.left = h;
+        x.color = h.color;
+        h.color = RED;
+        x.size = h.size;
+        h.size = 1 + size(h.left) + size(h.right);
+        return x;
+    }
+
+    private Node rotateRight(Node h) {
+        Node x = h.left;
+        h.left = x.right;
+        x.right = h;
+        x.color = h.color;
+        h.color = RED;
+        x.size = h.size;
+        h.size = 1 + size(h.left) + size(h.right);
+        return x;
+    }
+
+    private void flipColors(Node h) {
+        h.color = !h.color;
+        h.left.color = !h.left.color;
+        h.right.color = !h.right.color;
+    }
+
+    /** Makes h.left or one of its children red, assuming h is red and both
+     *  of its children are black. */
+    private Node moveRedLeft(Node h) {
+        flipColors(h);
+        if (isRed(h.right.left)) {
+            h.right = rotateRight(h.right);
+            h = rotateLeft(h);
+            flipColors(h);
+        }
+        return h;
+    }
+
+    /** Makes h.right or one of its children red, assuming h is red and both
+     *  of its children are black. */
+    private Node moveRedRight(Node h) {
+        flipColors(h);
+        if (isRed(h.left.left)) {
+            h = rotateRight(h);
+            flipColors(h);
+        }
+        return h;
+    }
+
+    /** Restores the left-leaning red-black invariants at h. */
+    private Node balance(Node h) {
+        if (isRed(h.right) && !isRed(h.left)) {
+            h = rotateLeft(h);
+        }
+        if (isRed(h.left) && isRed(h.left.left)) {
+            h = rotateRight(h);
+        }
+        if (isRed(h.left) && isRed(h.right)) {
+            flipColors(h);
+        }
+        h.size = 1 + size(h.left) + size(h.right);
+        return h;
+    }
+
+    /* ------------------------------- Ordered operations ------------------------------- */
+
+    @Override
+    public K minKey() {
+        if (root == null) {
+            return null;
+        }
+        Node x = root;
+        while (x.left != null) {
+            x = x.left;
+        }
+        return x.key;
+    }
+
+    @Override
+    public K maxKey() {
+        if (root == null) {
+            return null;
+        }
+        Node x = root;
+        while (x.right != null) {
+            x = x.right;
+        }
+        return x.key;
+    }
+
+    @Override
+    public K floorKey(K key) {
+        K best = null;
+        Node x = root;
+        while (x != null) {
+            int cmp = key.compareTo(x.key);
+            if (cmp == 0) {
+                return x.key;
+            } else if (cmp < 0) {
+                x = x.left;
+            } else {
+                best = x.key;
+                x = x.right;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public K ceilingKey(K key) {
+        K best = null;
+        Node x = root;
+        while (x != null) {
+            int cmp = key.compareTo(x.key);
+            if (cmp == 0) {
+                return x.key;
+            } else if (cmp > 0) {
+                x = x.right;
+            } else {
+                best = x.key;
+                x = x.left;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public int rank(K key) {
+        int r = 0;
+        Node x = root;
+        while (x != null) {
+            int cmp = key.compareTo(x.key);
+            if (cmp < 0) {
+                x = x.left;
+            } else if (cmp > 0) {
+                r += 1 + size(x.left);
+                x = x.right;
+            } else {
+                return r + size(x.left);
+            }
+        }
+        return r;
+    }
+
+    @Override
+    public K select(int i) {
+        if (i < 0 || i >= size()) {
+            throw new IllegalArgumentException("rank out of range: " + i);
+        }
+        Node x = root;
+        while (true) {
+            int leftSize = size(x.left);
+            if (i < leftSize) {
+                x = x.left;
+            } else if (i > leftSize) {
+                i -= leftSize + 1;
+                x = x.right;
+            } else {
+                return x.key;
+            }
+        }
+    }
+
+    @Override
+    public Iterable<K> subMap(K lo, K hi) {
+        return () -> new BSTMapIter(lo, hi);
+    }
+
+    @Override
+    public Iterable<K> headMap(K hi) {
+        return () -> new BSTMapIter(null, hi);
+    }
+
+    @Override
+    public Iterable<K> tailMap(K lo) {
+        return () -> new BSTMapIter(lo, null);
+    }
+
+    /* ------------------------------- Iteration ------------------------------- */
+
+    /** Returns the keys in ascending order. */
+    @Override
+    public Set<K> keySet() {
+        Set<K> result = new LinkedHashSet<>();
+        for (K key : this) {
+            result.add(key);
+        }
+        return result;
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new BSTMapIter(null, null);
+    }
+
+    /** Prints out the keys in increasing order. */
+    public void printInOrder() {
+        for (K key : this) {
+            System.out.println(key + " " + get(key));
+        }
+    }
+
+    /**
+     * An in-order iterator over the keys in [lo, hi) that keeps its path in
+     * an explicit stack. A null bound leaves that side of the range open.
+     * Only the nodes on the way to each returned key are visited.
+     */
+    private class BSTMapIter implements Iterator<K> {
+        /** Ancestors whose key has not been returned yet, deepest on top. */
+        private final Deque<Node> stack = new ArrayDeque<>();
+        private final K hi;
+
+        BSTMapIter(K lo, K hi) {
+            this.hi = hi;
+            /* Push the path to the smallest key >= lo, skipping every node
+             * (and left subtree) that lies below the range. */
+            Node x = root;
+            while (x != null) {
+                if (lo != null && x.key.compareTo(lo) < 0) {
+                    x = x.right;
+                } else {
+                    stack.push(x);
+                    x = x.left;
+                }
+            }
+        }
+
+        /** Pushes x and its chain of left descendants. */
+        private void pushLeft(Node x) {
+            while (x != null) {
+                stack.push(x);
+                x = x.left;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty() && (hi == null || stack.peek().key.compareTo(hi) < 0);
+        }
+
+        @Override
+        public K next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Node x = stack.pop();
+            pushLeft(x.right);
+            return x.key;
+        }
+    }
+}
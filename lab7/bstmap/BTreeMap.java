@@ -0,0 +1,443 @@
+package bstmap;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A Map61B backed by a B+-tree. Each node holds up to fanout - 1 keys in a
+ * sorted array, so a lookup touches O(log_fanout N) nodes and does a binary
+ * search inside each one instead of chasing a pointer per comparison.
+ * Values live only in the leaves, which are linked left to right so that
+ * iteration is a walk along the bottom level.
+ *
+ * Nodes other than the root never fall below half full: remove() borrows
+ * from or merges with a sibling whenever a node would underflow.
+ *
+ * Assumes null keys will never be inserted.
+ */
+public class BTreeMap<K extends Comparable<K>, V> implements Map61B<K, V> {
+
+    private static final int DEFAULT_FANOUT = 64;
+
+    /** A node holding n sorted keys. */
+    private abstract static class Node {
+        /** Sized one larger than the maximum to allow a transient overflow. */
+        final Object[] keys;
+        int n;
+
+        Node(int capacity) {
+            keys = new Object[capacity];
+        }
+    }
+
+    /** A bottom-level node; vals[i] is the value of keys[i]. */
+    private static class Leaf extends Node {
+        final Object[] vals;
+        Leaf next;
+
+        Leaf(int capacity) {
+            super(capacity);
+            vals = new Object[capacity];
+        }
+    }
+
+    /** An inner node; children[i] holds the keys in [keys[i-1], keys[i]). */
+    private static class Internal extends Node {
+        final Node[] children;
+
+        Internal(int capacity) {
+            super(capacity);
+            children = new Node[capacity + 1];
+        }
+    }
+
+    /** Maximum and minimum number of keys in a non-root node. */
+    private final int maxKeys;
+    private final int minKeys;
+    private Node root;
+    private int size;
+    /** Separator produced by the most recent split, to be added to the parent. */
+    private K promoted;
+
+    /** Creates an empty map with the default fanout. */
+    public BTreeMap() {
+        this(DEFAULT_FANOUT);
+    }
+
+    /**
+     * Creates an empty map whose nodes have at most FANOUT children.
+     * Larger fanouts make the tree shallower at the cost of longer
+     * in-node searches and shifts.
+     */
+    public BTreeMap(int fanout) {
+        if (fanout < 3) {
+            throw new IllegalArgumentException("fanout must be at least 3");
+        }
+        maxKeys = fanout - 1;
+        minKeys = maxKeys / 2;
+        root = new Leaf(maxKeys + 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private K key(Node x, int i) {
+        return (K) x.keys[i];
+    }
+
+    /**
+     * Returns the index of KEY among the keys of x if present, and
+     * otherwise -(insertion point) - 1, as with Arrays.binarySearch.
+     */
+    private int search(Node x, K key) {
+        int lo = 0;
+        int hi = x.n - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = key(x, mid).compareTo(key);
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    /** Returns the index of the child of x whose range contains KEY. */
+    private int childIndex(Internal x, K key) {
+        int i = search(x, key);
+        return i >= 0 ? i + 1 : -(i + 1);
+    }
+
+    /** Returns the leaf whose range contains KEY. */
+    private Leaf findLeaf(K key) {
+        Node x = root;
+        while (x instanceof Internal) {
+            Internal in = (Internal) x;
+            x = in.children[childIndex(in, key)];
+        }
+        return (Leaf) x;
+    }
+
+    @Override
+    public void clear() {
+        root = new Leaf(maxKeys + 1);
+        size = 0;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        Leaf leaf = findLeaf(key);
+        return search(leaf, key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        Leaf leaf = findLeaf(key);
+        int i = search(leaf, key);
+        return i >= 0 ? (V) leaf.vals[i] : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /* ------------------------------- Insertion ------------------------------- */
+
+    @Override
+    public void put(K key, V value) {
+        Node right = insert(root, key, value);
+        if (right != null) {
+            Internal newRoot = new Internal(maxKeys + 1);
+            newRoot.keys[0] = promoted;
+            newRoot.children[0] = root;
+            newRoot.children[1] = right;
+            newRoot.n = 1;
+            root = newRoot;
+        }
+    }
+
+    /**
+     * Inserts KEY into the subtree rooted at x. If x overflows it is split;
+     * the new right half is returned and its separator left in promoted.
+     * Returns null otherwise.
+     */
+    private Node insert(Node x, K key, V value) {
+        if (x instanceof Leaf) {
+            Leaf leaf = (Leaf) x;
+            int i = search(leaf, key);
+            if (i >= 0) {
+                leaf.vals[i] = value;
+                return null;
+            }
+            i = -(i + 1);
+            System.arraycopy(leaf.keys, i, leaf.keys, i + 1, leaf.n - i);
+            System.arraycopy(leaf.vals, i, leaf.vals, i + 1, leaf.n - i);
+            leaf.keys[i] = key;
+            leaf.vals[i] = value;
+            leaf.n += 1;
+            size += 1;
+            return leaf.n > maxKeys ? splitLeaf(leaf) : null;
+        }
+        Internal in = (Internal) x;
+        int i = childIndex(in, key);
+        Node right = insert(in.children[i], key, value);
+        if (right == null) {
+            return null;
+        }
+        System.arraycopy(in.keys, i, in.keys, i + 1, in.n - i);
+        System.arraycopy(in.children, i + 1, in.children, i + 2, in.n - i);
+        in.keys[i] = promoted;
+        in.children[i + 1] = right;
+        in.n += 1;
+        return in.n > maxKeys ? splitInternal(in) : null;
+    }
+
+    private Leaf splitLeaf(Leaf leaf) {
+        int mid = leaf.n / 2;
+        Leaf right = new Leaf(maxKeys + 1);
+        right.n = leaf.n - mid;
+        System.arraycopy(leaf.keys, mid, right.keys, 0, right.n);
+        System.arraycopy(leaf.vals, mid, right.vals, 0, right.n);
+        clearRange(leaf.keys, mid, leaf.n);
+        clearRange(leaf.vals, mid, leaf.n);
+        leaf.n = mid;
+        right.next = leaf.next;
+        leaf.next = right;
+        promoted = key(right, 0);
+        return right;
+    }
+
+    private Internal splitInternal(Internal in) {
+        int mid = in.n / 2;
+        Internal right = new Internal(maxKeys + 1);
+        right.n = in.n - mid - 1;
+        System.arraycopy(in.keys, mid + 1, right.keys, 0, right.n);
+        System.arraycopy(in.children, mid + 1, right.children, 0, right.n + 1);
+        promoted = key(in, mid);
+        clearRange(in.keys, mid, in.n);
+        clearRange(in.children, mid + 1, in.n + 1);
+        in.n = mid;
+        return right;
+    }
+
+    /** Nulls out a[from..to) so removed entries can be collected. */
+    private static void clearRange(Object[] a, int from, int to) {
+        for (int i = from; i < to; i++) {
+            a[i] = null;
+        }
+    }
+
+    /* ------------------------------- Removal ------------------------------- */
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(K key) {
+        Leaf leaf = findLeaf(key);
+        int i = search(leaf, key);
+        if (i < 0) {
+            return null;
+        }
+        V old = (V) leaf.vals[i];
+        delete(key);
+        return old;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(K key, V value) {
+        Leaf leaf = findLeaf(key);
+        int i = search(leaf, key);
+        if (i < 0) {
+            return null;
+        }
+        Object v = leaf.vals[i];
+        if (v == null ? value != null : !v.equals(value)) {
+            return null;
+        }
+        delete(key);
+        return (V) v;
+    }
+
+    /** Deletes KEY, which must be present, and collapses an emptied root. */
+    private void delete(K key) {
+        delete(root, key);
+        if (root instanceof Internal && root.n == 0) {
+            root = ((Internal) root).children[0];
+        }
+    }
+
+    /** Deletes KEY, which must be present, from the subtree rooted at x. */
+    private void delete(Node x, K key) {
+        if (x instanceof Leaf) {
+            Leaf leaf = (Leaf) x;
+            int i = search(leaf, key);
+            System.arraycopy(leaf.keys, i + 1, leaf.keys, i, leaf.n - i - 1);
+            System.arraycopy(leaf.vals, i + 1, leaf.vals, i, leaf.n - i - 1);
+            leaf.n -= 1;
+            leaf.keys[leaf.n] = null;
+            leaf.vals[leaf.n] = null;
+            size -= 1;
+            return;
+        }
+        Internal in = (Internal) x;
+        int i = childIndex(in, key);
+        delete(in.children[i], key);
+        if (in.children[i].n < minKeys) {
+            fixUnderflow(in, i);
+        }
+    }
+
+    /** Refills children[i] of PARENT from a sibling, or merges them. */
+    private void fixUnderflow(Internal parent, int i) {
+        if (i > 0 && parent.children[i - 1].n > minKeys) {
+            borrowFromLeft(parent, i);
+        } else if (i < parent.n && parent.children[i + 1].n > minKeys) {
+            borrowFromRight(parent, i);
+        } else if (i > 0) {
+            merge(parent, i - 1);
+        } else {
+            merge(parent, i);
+        }
+    }
+
+    private void borrowFromLeft(Internal parent, int i) {
+        Node child = parent.children[i];
+        Node left = parent.children[i - 1];
+        System.arraycopy(child.keys, 0, child.keys, 1, child.n);
+        if (child instanceof Leaf) {
+            Leaf c = (Leaf) child;
+            Leaf l = (Leaf) left;
+            System.arraycopy(c.vals, 0, c.vals, 1, c.n);
+            c.keys[0] = l.keys[l.n - 1];
+            c.vals[0] = l.vals[l.n - 1];
+            l.vals[l.n - 1] = null;
+            parent.keys[i - 1] = c.keys[0];
+        } else {
+            Internal c = (Internal) child;
+            Internal l = (Internal) left;
+            System.arraycopy(c.children, 0, c.children, 1, c.n + 1);
+            c.keys[0] = parent.keys[i - 1];
+            c.children[0] = l.children[l.n];
+            l.children[l.n] = null;
+            parent.keys[i - 1] = l.keys[l.n - 1];
+        }
+        left.keys[left.n - 1] = null;
+        left.n -= 1;
+        child.n += 1;
+    }
+
+    private void borrowFromRight(Internal parent, int i) {
+        Node child = parent.children[i];
+        Node right = parent.children[i + 1];
+        if (child instanceof Leaf) {
+            Leaf c = (Leaf) child;
+            Leaf r = (Leaf) right;
+            c.keys[c.n] = r.keys[0];
+            c.vals[c.n] = r.vals[0];
+            System.arraycopy(r.vals, 1, r.vals, 0, r.n - 1);
+            r.vals[r.n - 1] = null;
+            System.arraycopy(r.keys, 1, r.keys, 0, r.n - 1);
+            parent.keys[i] = r.keys[0];
+        } else {
+            Internal c = (Internal) child;
+            Internal r = (Internal) right;
+            c.keys[c.n] = parent.keys[i];
+            c.children[c.n + 1] = r.children[0];
+            parent.keys[i] = r.keys[0];
+            System.arraycopy(r.keys, 1, r.keys, 0, r.n - 1);
+            System.arraycopy(r.children, 1, r.children, 0, r.n);
+            r.children[r.n] = null;
+        }
+        right.keys[right.n - 1] = null;
+        right.n -= 1;
+        child.n += 1;
+    }
+
+    /** Merges children[j + 1] of PARENT into children[j]. */
+    private void merge(Internal parent, int j) {
+        Node left = parent.children[j];
+        Node right = parent.children[j + 1];
+        if (left instanceof Leaf) {
+            Leaf l = (Leaf) left;
+            Leaf r = (Leaf) right;
+            System.arraycopy(r.keys, 0, l.keys, l.n, r.n);
+            System.arraycopy(r.vals, 0, l.vals, l.n, r.n);
+            l.n += r.n;
+            l.next = r.next;
+        } else {
+            Internal l = (Internal) left;
+            Internal r = (Internal) right;
+            l.keys[l.n] = parent.keys[j];
+            System.arraycopy(r.keys, 0, l.keys, l.n + 1, r.n);
+            System.arraycopy(r.children, 0, l.children, l.n + 1, r.n + 1);
+            l.n += r.n + 1;
+        }
+        System.arraycopy(parent.keys, j + 1, parent.keys, j, parent.n - j - 1);
+        System.arraycopy(parent.children, j + 2, parent.children, j + 1, parent.n - j - 1);
+        parent.n -= 1;
+        parent.keys[parent.n] = null;
+        parent.children[parent.n + 1] = null;
+    }
+
+    /* ------------------------------- Iteration ------------------------------- */
+
+    /** Returns the keys in ascending order. */
+    @Override
+    public Set<K> keySet() {
+        Set<K> result = new LinkedHashSet<>();
+        for (K key : this) {
+            result.add(key);
+        }
+        return result;
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new BTreeMapIter();
+    }
+
+    /** An iterator that walks the linked list of leaves. */
+    private class BTreeMapIter implements Iterator<K> {
+        private Leaf leaf;
+        private int i;
+
+        BTreeMapIter() {
+            Node x = root;
+            while (x instanceof Internal) {
+                x = ((Internal) x).children[0];
+            }
+            leaf = (Leaf) x;
+            skipExhausted();
+        }
+
+        /** Advances past leaves with no keys left to return. */
+        private void skipExhausted() {
+            while (leaf != null && i >= leaf.n) {
+                leaf = leaf.next;
+                i = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return leaf != null;
+        }
+
+        @Override
+        public K next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            K key = key(leaf, i);
+            i += 1;
+            skipExhausted();
+            return key;
+        }
+    }
+}
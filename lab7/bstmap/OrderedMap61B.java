@@ -0,0 +1,41 @@
+package bstmap;
+
+/* An extension of Map61B for maps that keep their keys sorted. The range
+ * methods return lazy views: iterating over one walks the underlying map
+ * directly, without first copying the matching keys into a collection.
+ * The views reflect the map as it is when iteration starts, and their
+ * iterators must not be used after the map is modified.
+ */
+public interface OrderedMap61B<K extends Comparable<K>, V> extends Map61B<K, V> {
+
+    /* Returns the smallest key in this map, or null if it is empty. */
+    K minKey();
+
+    /* Returns the largest key in this map, or null if it is empty. */
+    K maxKey();
+
+    /* Returns the largest key less than or equal to KEY, or null if there is
+     * no such key. */
+    K floorKey(K key);
+
+    /* Returns the smallest key greater than or equal to KEY, or null if
+     * there is no such key. */
+    K ceilingKey(K key);
+
+    /* Returns the number of keys strictly less than KEY. */
+    int rank(K key);
+
+    /* Returns the key with rank I, i.e. the (I + 1)th smallest key. Throws
+     * IllegalArgumentException unless 0 <= I < size(). */
+    K select(int i);
+
+    /* Returns the keys from LO, inclusive, to HI, exclusive, in ascending
+     * order. */
+    Iterable<K> subMap(K lo, K hi);
+
+    /* Returns the keys strictly less than HI in ascending order. */
+    Iterable<K> headMap(K hi);
+
+    /* Returns the keys greater than or equal to LO in ascending order. */
+    Iterable<K> tailMap(K lo);
+}
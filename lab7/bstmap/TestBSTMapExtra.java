@@ -1,7 +1,10 @@
 package bstmap;
 
+import java.util.ArrayList;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.Random;
+import java.util.TreeMap;
 import static org.junit.Assert.*;
 import org.junit.Test;
 
@@ -113,4 +116,60 @@ public class TestBSTMapExtra {
         assertEquals(null, noChild.get('Z'));
     }
 
+    /* Sorted inserts are the worst case for an unbalanced BST; a balanced
+     * tree handles a million of them without overflowing the stack. */
+    @Test
+    public void testSortedInsertAndRemove() {
+        BSTMap<Integer, Integer> b = new BSTMap<>();
+        int n = 1000000;
+        for (int i = 0; i < n; i++) {
+            b.put(i, i);
+        }
+        assertEquals(n, b.size());
+        for (int i = 0; i < n; i += 2) {
+            assertEquals(Integer.valueOf(i), b.remove(i));
+        }
+        assertEquals(n / 2, b.size());
+        int expected = 1;
+        for (int key : b) {
+            assertEquals(expected, key);
+            expected += 2;
+        }
+    }
+
+    /** remove(key, value) returns the value the map held, which may be a
+     *  different object from the equal one passed in. */
+    @Test
+    public void testRemoveReturnsStoredValue() {
+        BSTMap<String, String> b = new BSTMap<>();
+        String stored = new String("value");
+        b.put("a", stored);
+        b.put("b", "other");
+        assertNull(b.remove("a", "wrong"));
+        assertSame(stored, b.remove("a", new String("value")));
+        assertFalse(b.containsKey("a"));
+        assertEquals(1, b.size());
+    }
+
+    @Test
+    public void randomizedAgainstTreeMap() {
+        Random r = new Random(61);
+        BSTMap<Integer, Integer> b = new BSTMap<>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 100000; i++) {
+            int key = r.nextInt(2000);
+            int op = r.nextInt(3);
+            if (op == 0) {
+                b.put(key, i);
+                expected.put(key, i);
+            } else if (op == 1) {
+                assertEquals(expected.remove(key), b.remove(key));
+            } else {
+                assertEquals(expected.get(key), b.get(key));
+            }
+            assertEquals(expected.size(), b.size());
+        }
+        assertEquals(new ArrayList<>(expected.keySet()),
+                new ArrayList<>(b.keySet()));
+    }
 }
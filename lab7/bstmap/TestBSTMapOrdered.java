@@ -0,0 +1,92 @@
+package bstmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/** Tests of the ordered operations of BSTMap. */
+public class TestBSTMapOrdered {
+
+    /** Returns the keys of IT as a list. */
+    private static <K> List<K> toList(Iterable<K> it) {
+        List<K> result = new ArrayList<>();
+        for (K k : it) {
+            result.add(k);
+        }
+        return result;
+    }
+
+    @Test
+    public void emptyMapTest() {
+        BSTMap<Integer, Integer> b = new BSTMap<>();
+        assertNull(b.minKey());
+        assertNull(b.maxKey());
+        assertNull(b.floorKey(3));
+        assertNull(b.ceilingKey(3));
+        assertEquals(0, b.rank(3));
+        assertTrue(toList(b.subMap(0, 10)).isEmpty());
+    }
+
+    @Test
+    public void floorCeilingTest() {
+        BSTMap<Integer, String> b = new BSTMap<>();
+        for (int i = 0; i < 100; i += 10) {
+            b.put(i, "v" + i);
+        }
+        assertEquals(Integer.valueOf(0), b.minKey());
+        assertEquals(Integer.valueOf(90), b.maxKey());
+        assertEquals(Integer.valueOf(20), b.floorKey(25));
+        assertEquals(Integer.valueOf(30), b.ceilingKey(25));
+        assertEquals(Integer.valueOf(30), b.floorKey(30));
+        assertEquals(Integer.valueOf(30), b.ceilingKey(30));
+        assertNull(b.floorKey(-1));
+        assertNull(b.ceilingKey(91));
+    }
+
+    @Test
+    public void rankSelectTest() {
+        BSTMap<Integer, Integer> b = new BSTMap<>();
+        for (int i = 0; i < 1000; i++) {
+            b.put(2 * i, i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.valueOf(2 * i), b.select(i));
+            assertEquals(i, b.rank(2 * i));
+            assertEquals(i + 1, b.rank(2 * i + 1));
+        }
+        try {
+            b.select(1000);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void randomizedRangesAgainstTreeMap() {
+        Random r = new Random(61);
+        BSTMap<Integer, Integer> b = new BSTMap<>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 2000; i++) {
+            int key = r.nextInt(5000);
+            b.put(key, i);
+            expected.put(key, i);
+        }
+        for (int i = 0; i < 500; i++) {
+            int lo = r.nextInt(5200) - 100;
+            int hi = lo + r.nextInt(1000);
+            assertEquals(new ArrayList<>(expected.subMap(lo, hi).keySet()),
+                    toList(b.subMap(lo, hi)));
+            assertEquals(new ArrayList<>(expected.headMap(hi).keySet()),
+                    toList(b.headMap(hi)));
+            assertEquals(new ArrayList<>(expected.tailMap(lo).keySet()),
+                    toList(b.tailMap(lo)));
+            assertEquals(expected.floorKey(lo), b.floorKey(lo));
+            assertEquals(expected.ceilingKey(lo), b.ceilingKey(lo));
+            assertEquals(expected.headMap(lo).size(), b.rank(lo));
+        }
+    }
+}
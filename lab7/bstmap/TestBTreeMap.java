@@ -0,0 +1,102 @@
+package bstmap;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.TreeMap;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/** Tests of the B+-tree map. */
+public class TestBTreeMap {
+
+    @Test
+    public void sanityClearTest() {
+        BTreeMap<String, Integer> b = new BTreeMap<>();
+        for (int i = 0; i < 455; i++) {
+            b.put("hi" + i, 1 + i);
+            assertTrue(null != b.get("hi" + i) && (b.get("hi" + i).equals(1 + i))
+                    && b.containsKey("hi" + i));
+        }
+        assertEquals(455, b.size());
+        b.clear();
+        assertEquals(0, b.size());
+        for (int i = 0; i < 455; i++) {
+            assertTrue(null == b.get("hi" + i) && !b.containsKey("hi" + i));
+        }
+    }
+
+    @Test
+    public void testRemoveWithValue() {
+        BTreeMap<String, String> q = new BTreeMap<>();
+        q.put("a", "x");
+        assertNull(q.remove("a", "y"));
+        assertEquals("x", q.remove("a", "x"));
+        assertFalse(q.containsKey("a"));
+        assertEquals(0, q.size());
+    }
+
+    /** remove(key, value) returns the value the map held, which may be a
+     *  different object from the equal one passed in, and shrinks the
+     *  tree as remove(key) does. */
+    @Test
+    public void testRemoveWithValueReturnsStoredValue() {
+        BTreeMap<Integer, String> b = new BTreeMap<>(3);
+        String[] stored = new String[1000];
+        for (int i = 0; i < stored.length; i++) {
+            stored[i] = new String("v" + i);
+            b.put(i, stored[i]);
+        }
+        for (int i = 0; i < stored.length; i++) {
+            assertSame(stored[i], b.remove(i, new String("v" + i)));
+            assertEquals(stored.length - i - 1, b.size());
+        }
+        b.put(7, "seven");
+        assertEquals("seven", b.get(7));
+        assertEquals(1, b.size());
+    }
+
+    /** Small fanouts force splits, borrows and merges at every level. */
+    @Test
+    public void randomizedAgainstTreeMap() {
+        for (int fanout : new int[] {3, 4, 5, 8, 64}) {
+            Random r = new Random(fanout);
+            BTreeMap<Integer, Integer> b = new BTreeMap<>(fanout);
+            TreeMap<Integer, Integer> expected = new TreeMap<>();
+            for (int i = 0; i < 100000; i++) {
+                int key = r.nextInt(3000);
+                int op = r.nextInt(3);
+                if (op == 0) {
+                    b.put(key, i);
+                    expected.put(key, i);
+                } else if (op == 1) {
+                    assertEquals(expected.remove(key), b.remove(key));
+                } else {
+                    assertEquals(expected.get(key), b.get(key));
+                }
+                assertEquals(expected.size(), b.size());
+            }
+            assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(b.keySet()));
+            for (int key : expected.keySet().toArray(new Integer[0])) {
+                assertEquals(expected.remove(key), b.remove(key));
+            }
+            assertEquals(0, b.size());
+            assertFalse(b.iterator().hasNext());
+        }
+    }
+
+    @Test
+    public void testSortedInsert() {
+        BTreeMap<Integer, Integer> b = new BTreeMap<>();
+        int n = 1000000;
+        for (int i = 0; i < n; i++) {
+            b.put(i, i);
+        }
+        assertEquals(n, b.size());
+        int expected = 0;
+        for (int key : b) {
+            assertEquals(expected, key);
+            expected += 1;
+        }
+        assertEquals(n, expected);
+    }
+}
@@ -0,0 +1,364 @@
+package hashmap;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ *  A thread-safe hash table-backed Map implementation. The table is split
+ *  into independent segments, each a small chained hash table guarded by
+ *  its own read/write lock. A key's segment is picked from the high bits of
+ *  its hash and its bucket from the low bits, so threads touching different
+ *  segments never contend.
+ *
+ *  Each segment resizes on its own once its load factor is exceeded, so a
+ *  resize only blocks the operations on that one segment; readers and
+ *  writers of every other segment keep running. Like MyHashMap, a segment
+ *  migrates into its doubled table a few buckets per write rather than
+ *  all at once, so no single put() holds the write lock for a full rehash.
+ *
+ *  size() and keySet() are exact when no writer is active and otherwise
+ *  reflect some interleaving of the concurrent updates.
+ *
+ *  Assumes null keys will never be inserted.
+ */
+public class ConcurrentMyHashMap<K, V> implements Map61B<K, V> {
+
+    private static final int DEFAULT_INITIAL_SIZE = 16;
+    private static final double DEFAULT_MAX_LOAD = 0.75;
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+    /** Fewest old-table slots migrated by each write during a resize. */
+    private static final int MIGRATE_STEP = 8;
+
+    /** A key/value pair in a segment's bucket chain. */
+    private static class Node<K, V> {
+        final K key;
+        final int hash;
+        V value;
+        Node<K, V> next;
+
+        Node(K k, int h, V v, Node<K, V> n) {
+            key = k;
+            hash = h;
+            value = v;
+            next = n;
+        }
+    }
+
+    /** One independently locked hash table. */
+    private static class Segment<K, V> {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        Node<K, V>[] buckets;
+        volatile int count;
+        /** The table being migrated out of, or null when no resize is in progress. */
+        Node<K, V>[] oldBuckets;
+        /** Index of the next oldBuckets slot to migrate. */
+        int migrateIndex;
+        /** Number of old-table slots each writer migrates in this resize. */
+        int migrateBudget;
+
+        Segment(int tableSize) {
+            buckets = createTable(tableSize);
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        static <K, V> Node<K, V>[] createTable(int tableSize) {
+            return (Node<K, V>[]) new Node[tableSize];
+        }
+
+        /**
+         * Returns the node holding KEY in either table. Caller must hold
+         * the lock.
+         */
+        Node<K, V> find(K key, int h) {
+            Node<K, V> n = find(buckets, key, h);
+            if (n == null && oldBuckets != null) {
+                n = find(oldBuckets, key, h);
+            }
+            return n;
+        }
+
+        /** Returns the node holding KEY in TABLE, or null. */
+        static <K, V> Node<K, V> find(Node<K, V>[] table, K key, int h) {
+            for (Node<K, V> p = table[h & (table.length - 1)]; p != null; p = p.next) {
+                if (p.hash == h && p.key.equals(key)) {
+                    return p;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Starts migrating into a table twice the size, as MyHashMap does,
+         * so that no single write rehashes the whole segment. The put()
+         * that calls this is about to raise the count by one; the old
+         * slots are spread over the puts left before the next resize.
+         * Caller must hold the write lock.
+         */
+        void startResize(double maxLoad) {
+            finishResize();
+            int newSize = buckets.length * 2;
+            long puts = Math.max(1, (long) Math.floor(maxLoad * newSize) - count);
+            oldBuckets = buckets;
+            buckets = createTable(newSize);
+            migrateIndex = 0;
+            migrateBudget = (int) Math.max(MIGRATE_STEP, (oldBuckets.length + puts - 1) / puts);
+        }
+
+        /** Moves the chain of old bucket I, if any, into the current table. */
+        void migrateBucket(int i) {
+            Node<K, V> p = oldBuckets[i];
+            oldBuckets[i] = null;
+            int mask = buckets.length - 1;
+            while (p != null) {
+                Node<K, V> next = p.next;
+                int j = p.hash & mask;
+                p.next = buckets[j];
+                buckets[j] = p;
+                p = next;
+            }
+        }
+
+        /**
+         * Migrates the next migrateBudget old slots, if a resize is in
+         * progress. Caller must hold the write lock.
+         */
+        void migrateStep() {
+            if (oldBuckets == null) {
+                return;
+            }
+            int end = (int) Math.min((long) migrateIndex + migrateBudget, oldBuckets.length);
+            for (; migrateIndex < end; migrateIndex++) {
+                migrateBucket(migrateIndex);
+            }
+            if (migrateIndex == oldBuckets.length) {
+                oldBuckets = null;
+            }
+        }
+
+        /** Migrates every remaining old bucket. */
+        void finishResize() {
+            while (oldBuckets != null) {
+                migrateStep();
+            }
+        }
+
+        /**
+         * Ensures that the key with hash H, if present, lives in the
+         * current table. Caller must hold the write lock.
+         */
+        void migrateKey(int h) {
+            if (oldBuckets != null) {
+                migrateBucket(h & (oldBuckets.length - 1));
+            }
+        }
+    }
+
+    /* Instance Variables */
+    private final Segment<K, V>[] segments;
+    /** Shift that turns a hash into the index of its segment. */
+    private final int segmentShift;
+    private final double maxLoad;
+
+    /** Constructors */
+    public ConcurrentMyHashMap() {
+        this(DEFAULT_INITIAL_SIZE, DEFAULT_MAX_LOAD, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    public ConcurrentMyHashMap(int initialSize) {
+        this(initialSize, DEFAULT_MAX_LOAD, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    public ConcurrentMyHashMap(int initialSize, double maxLoad) {
+        this(initialSize, maxLoad, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * ConcurrentMyHashMap constructor that spreads initialSize buckets over
+     * at least concurrencyLevel segments. The load factor of every segment
+     * (# items / # buckets) is kept <= maxLoad.
+     *
+     * @param initialSize initial total number of buckets
+     * @param maxLoad maximum load factor
+     * @param concurrencyLevel expected number of concurrently writing threads
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ConcurrentMyHashMap(int initialSize, double maxLoad, int concurrencyLevel) {
+        if (initialSize < 1 || maxLoad <= 0 || concurrencyLevel < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.maxLoad = maxLoad;
+        int nSegments = 1;
+        while (nSegments < concurrencyLevel) {
+            nSegments <<= 1;
+        }
+        segmentShift = 32 - Integer.numberOfTrailingZeros(nSegments);
+        int perSegment = 1;
+        while (perSegment * nSegments < initialSize) {
+            perSegment <<= 1;
+        }
+        segments = (Segment<K, V>[]) new Segment[nSegments];
+        for (int i = 0; i < nSegments; i++) {
+            segments[i] = new Segment<>(perSegment);
+        }
+    }
+
+    /** Spreads the bits of KEY's hash code across the whole int. */
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** Returns the segment responsible for hash H. */
+    private Segment<K, V> segmentFor(int h) {
+        return segmentShift == 32 ? segments[0] : segments[h >>> segmentShift];
+    }
+
+    @Override
+    public void clear() {
+        for (Segment<K, V> s : segments) {
+            s.lock.writeLock().lock();
+            try {
+                Arrays.fill(s.buckets, null);
+                s.oldBuckets = null;
+                s.count = 0;
+            } finally {
+                s.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        int h = hash(key);
+        Segment<K, V> s = segmentFor(h);
+        s.lock.readLock().lock();
+        try {
+            return s.find(key, h) != null;
+        } finally {
+            s.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public V get(K key) {
+        int h = hash(key);
+        Segment<K, V> s = segmentFor(h);
+        s.lock.readLock().lock();
+        try {
+            Node<K, V> n = s.find(key, h);
+            return n == null ? null : n.value;
+        } finally {
+            s.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        int total = 0;
+        for (Segment<K, V> s : segments) {
+            total += s.count;
+        }
+        return total;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        int h = hash(key);
+        Segment<K, V> s = segmentFor(h);
+        s.lock.writeLock().lock();
+        try {
+            s.migrateStep();
+            Node<K, V> n = s.find(key, h);
+            if (n != null) {
+                n.value = value;
+                return;
+            }
+            if (s.count + 1 > maxLoad * s.buckets.length) {
+                s.startResize(maxLoad);
+            }
+            int i = h & (s.buckets.length - 1);
+            s.buckets[i] = new Node<>(key, h, value, s.buckets[i]);
+            s.count = s.count + 1;
+        } finally {
+            s.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Set<K> keySet() {
+        Set<K> result = new HashSet<>();
+        for (Segment<K, V> s : segments) {
+            s.lock.readLock().lock();
+            try {
+                addKeys(s.buckets, result);
+                if (s.oldBuckets != null) {
+                    addKeys(s.oldBuckets, result);
+                }
+            } finally {
+                s.lock.readLock().unlock();
+            }
+        }
+        return result;
+    }
+
+    /** Adds the keys of every chain in TABLE to RESULT. */
+    private static <K, V> void addKeys(Node<K, V>[] table, Set<K> result) {
+        for (Node<K, V> head : table) {
+            for (Node<K, V> p = head; p != null; p = p.next) {
+                result.add(p.key);
+            }
+        }
+    }
+
+    /**
+     * Removes KEY if it is present and, when MATCHVALUE is set, only if it
+     * is mapped to VALUE. Returns the removed value.
+     */
+    private V remove(K key, V value, boolean matchValue) {
+        int h = hash(key);
+        Segment<K, V> s = segmentFor(h);
+        s.lock.writeLock().lock();
+        try {
+            s.migrateStep();
+            s.migrateKey(h);
+            int i = h & (s.buckets.length - 1);
+            Node<K, V> prev = null;
+            for (Node<K, V> p = s.buckets[i]; p != null; prev = p, p = p.next) {
+                if (p.hash == h && p.key.equals(key)) {
+                    if (matchValue && (p.value == null ? value != null : !p.value.equals(value))) {
+                        return null;
+                    }
+                    if (prev == null) {
+                        s.buckets[i] = p.next;
+                    } else {
+                        prev.next = p.next;
+                    }
+                    s.count = s.count - 1;
+                    return p.value;
+                }
+            }
+            return null;
+        } finally {
+            s.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public V remove(K key) {
+        return remove(key, null, false);
+    }
+
+    @Override
+    public V remove(K key, V value) {
+        return remove(key, value, true);
+    }
+
+    /** Returns an iterator over a snapshot of the keys, as by keySet(). */
+    @Override
+    public Iterator<K> iterator() {
+        return keySet().iterator();
+    }
+}
@@ -0,0 +1,118 @@
+package hashmap;
+
+/**
+ * A snapshot of how well a MyHashMap distributes its keys, as returned by
+ * MyHashMap.stats().
+ */
+public class HashMapStats {
+    private final int[] chainLengthHistogram;
+    private final int maxChainLength;
+    private final long entries;
+    private final long expectedProbes;
+    private final long lookups;
+    private final long probes;
+    private final int resizes;
+    private final long resizeNanos;
+
+    /**
+     * Creates a snapshot from a chain-length histogram and the measured
+     * lookup and probe counts. Expected probe counts are derived from the
+     * histogram: finding the k-th entry of a chain compares against k
+     * entries, so a chain of length n costs n(n+1)/2 probes to look up
+     * each of its keys once.
+     */
+    HashMapStats(int[] chainLengthHistogram, long lookups, long probes,
+                 int resizes, long resizeNanos) {
+        this.chainLengthHistogram = chainLengthHistogram;
+        this.maxChainLength = chainLengthHistogram.length - 1;
+        long e = 0;
+        long p = 0;
+        for (int n = 1; n < chainLengthHistogram.length; n++) {
+            e += (long) n * chainLengthHistogram[n];
+            p += (long) n * (n + 1) / 2 * chainLengthHistogram[n];
+        }
+        this.entries = e;
+        this.expectedProbes = p;
+        this.lookups = lookups;
+        this.probes = probes;
+        this.resizes = resizes;
+        this.resizeNanos = resizeNanos;
+    }
+
+    /**
+     * Returns an array whose element k is the number of buckets holding
+     * exactly k entries. Its last index is the longest chain length.
+     */
+    public int[] chainLengthHistogram() {
+        return chainLengthHistogram.clone();
+    }
+
+    /** Returns the number of entries in the fullest bucket. */
+    public int maxChainLength() {
+        return maxChainLength;
+    }
+
+    /** Returns the number of entries in the map. */
+    public long entries() {
+        return entries;
+    }
+
+    /**
+     * Returns the average number of entries a successful get() would
+     * compare against if every key in the map were looked up equally
+     * often, or 0 if it is empty.
+     */
+    public double expectedProbesPerLookup() {
+        return entries == 0 ? 0 : (double) expectedProbes / entries;
+    }
+
+    /**
+     * Returns the number of get() and containsKey() calls made, or 0 if
+     * the map does not record probes.
+     */
+    public long lookups() {
+        return lookups;
+    }
+
+    /** Returns the number of entries those lookups compared against. */
+    public long probes() {
+        return probes;
+    }
+
+    /**
+     * Returns probes() / lookups(), or 0 if there were no lookups. Unlike
+     * expectedProbesPerLookup(), this reflects which keys were actually
+     * looked up, so a hot key deep in a long chain shows here.
+     */
+    public double averageProbesPerLookup() {
+        return lookups == 0 ? 0 : (double) probes / lookups;
+    }
+
+    /** Returns the number of times the table has grown. */
+    public int resizes() {
+        return resizes;
+    }
+
+    /** Returns the total time spent allocating and migrating tables. */
+    public long resizeNanos() {
+        return resizeNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("max chain %d, %.2f expected probes/lookup over %d entries, ",
+                maxChainLength, expectedProbesPerLookup(), entries));
+        if (lookups > 0) {
+            sb.append(String.format("%.2f probes/lookup over %d lookups, ",
+                    averageProbesPerLookup(), lookups));
+        }
+        sb.append(String.format("%d resizes in %.2f ms%n", resizes, resizeNanos / 1e6));
+        for (int k = 0; k < chainLengthHistogram.length; k++) {
+            if (chainLengthHistogram[k] != 0) {
+                sb.append(String.format("  %4d entries: %d buckets%n", k, chainLengthHistogram[k]));
+            }
+        }
+        return sb.toString();
+    }
+}
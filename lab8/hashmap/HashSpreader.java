@@ -0,0 +1,27 @@
+package hashmap;
+
+/**
+ * Maps a key's hashCode() to the int MyHashMap uses to choose a bucket.
+ * A good spreader mixes every input bit into the low bits, which guards
+ * against hashCode() implementations whose low bits vary little (for
+ * example multiples of a power of two). It cannot separate keys whose
+ * hashCode() values are exactly equal.
+ */
+@FunctionalInterface
+public interface HashSpreader {
+    /** Uses hashCode() unchanged. */
+    HashSpreader IDENTITY = h -> h;
+
+    /** The 32-bit finalizer of MurmurHash3, a full avalanche of all bits. */
+    HashSpreader MURMUR3 = h -> {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    };
+
+    /** Returns the spread form of the hash code H. */
+    int spread(int h);
+}
@@ -0,0 +1,228 @@
+package hashmap;
+
+/**
+ *  A hash map from primitive int keys to primitive int values, backed by
+ *  two parallel int[] arrays with linear probing. No operation boxes.
+ *
+ *  Because an int value cannot be null, this map does not implement
+ *  Map61B; missing keys are reported through getOrDefault's default
+ *  instead. The key 0 marks an empty slot in the table and is therefore
+ *  kept outside of it.
+ */
+public class IntIntHashMap {
+
+    private static final int DEFAULT_INITIAL_SIZE = 16;
+    private static final double DEFAULT_MAX_LOAD = 0.75;
+
+    /* Instance Variables */
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private final double maxLoad;
+    /** Number of entries allowed in the table before it is doubled. */
+    private int threshold;
+
+    /** Whether the key 0 is present, and its value. */
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    /** Constructors */
+    public IntIntHashMap() {
+        this(DEFAULT_INITIAL_SIZE, DEFAULT_MAX_LOAD);
+    }
+
+    public IntIntHashMap(int initialSize) {
+        this(initialSize, DEFAULT_MAX_LOAD);
+    }
+
+    /**
+     * IntIntHashMap constructor that creates backing arrays of at least
+     * initialSize slots. The load factor (# items / # slots) is always kept
+     * <= maxLoad.
+     *
+     * @param initialSize initial size of backing arrays
+     * @param maxLoad maximum load factor, strictly between 0 and 1
+     */
+    public IntIntHashMap(int initialSize, double maxLoad) {
+        if (initialSize < 1 || maxLoad <= 0 || maxLoad >= 1) {
+            throw new IllegalArgumentException();
+        }
+        this.maxLoad = maxLoad;
+        int cap = 1;
+        while (cap < initialSize) {
+            cap <<= 1;
+        }
+        createTable(cap);
+    }
+
+    private void createTable(int tableSize) {
+        keys = new int[tableSize];
+        values = new int[tableSize];
+        threshold = Math.min(tableSize - 1, (int) (tableSize * maxLoad));
+    }
+
+    /** Scrambles KEY so that sequential keys do not cluster. */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** Returns the slot holding the non-zero KEY, or -1. */
+    private int indexOf(int key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        int k;
+        while ((k = keys[i]) != 0) {
+            if (k == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void resize(int newSize) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        createTable(newSize);
+        int mask = newSize - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            int k = oldKeys[j];
+            if (k != 0) {
+                int i = hash(k) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = k;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /** Removes all of the mappings from this map. */
+    public void clear() {
+        createTable(keys.length);
+        size = 0;
+        hasZeroKey = false;
+        zeroValue = 0;
+    }
+
+    /** Returns true if this map contains a mapping for KEY. */
+    public boolean containsKey(int key) {
+        return key == 0 ? hasZeroKey : indexOf(key) >= 0;
+    }
+
+    /**
+     * Returns the value to which KEY is mapped, or DEFAULTVALUE if this map
+     * contains no mapping for KEY.
+     */
+    public int getOrDefault(int key, int defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int i = indexOf(key);
+        return i < 0 ? defaultValue : values[i];
+    }
+
+    /** Returns the number of key-value mappings in this map. */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Associates VALUE with KEY, replacing the previous value if the map
+     * already contained KEY.
+     */
+    public void put(int key, int value) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size += 1;
+            }
+            zeroValue = value;
+            return;
+        }
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        int k;
+        while ((k = keys[i]) != 0) {
+            if (k == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size += 1;
+        if (size - (hasZeroKey ? 1 : 0) > threshold) {
+            resize(keys.length * 2);
+        }
+    }
+
+    /**
+     * Removes the mapping for KEY if present. Returns true if a mapping was
+     * removed.
+     */
+    public boolean remove(int key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                return false;
+            }
+            hasZeroKey = false;
+            zeroValue = 0;
+            size -= 1;
+            return true;
+        }
+        int i = indexOf(key);
+        if (i < 0) {
+            return false;
+        }
+        shiftKeys(i);
+        size -= 1;
+        return true;
+    }
+
+    /**
+     * Empties slot POS and moves later members of its probe run back so
+     * that no lookup has to step over a hole.
+     */
+    private void shiftKeys(int pos) {
+        int mask = keys.length - 1;
+        while (true) {
+            int last = pos;
+            pos = (pos + 1) & mask;
+            int k;
+            while (true) {
+                k = keys[pos];
+                if (k == 0) {
+                    keys[last] = 0;
+                    values[last] = 0;
+                    return;
+                }
+                int slot = hash(k) & mask;
+                if (last <= pos ? (last >= slot || slot > pos) : (last >= slot && slot > pos)) {
+                    break;
+                }
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = k;
+            values[last] = values[pos];
+        }
+    }
+
+    /** Returns a fresh array holding every key in this map. */
+    public int[] keys() {
+        int[] result = new int[size];
+        int n = 0;
+        if (hasZeroKey) {
+            result[n++] = 0;
+        }
+        for (int k : keys) {
+            if (k != 0) {
+                result[n++] = k;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,292 @@
+package hashmap;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ *  A hash map from primitive int keys to object values. Keys are stored in
+ *  an int[] and probed linearly, so put(int, V), get(int) and
+ *  containsKey(int) never box.
+ *
+ *  The boxed Map61B methods are provided for interoperability and simply
+ *  unbox their argument. The key 0 marks an empty slot in the table and is
+ *  therefore kept outside of it.
+ */
+public class IntObjectHashMap<V> implements Map61B<Integer, V> {
+
+    private static final int DEFAULT_INITIAL_SIZE = 16;
+    private static final double DEFAULT_MAX_LOAD = 0.75;
+
+    /* Instance Variables */
+    private int[] keys;
+    private V[] values;
+    private int size;
+    private final double maxLoad;
+    /** Number of entries allowed in the table before it is doubled. */
+    private int threshold;
+
+    /** Whether the key 0 is present, and its value. */
+    private boolean hasZeroKey;
+    private V zeroValue;
+
+    /** Constructors */
+    public IntObjectHashMap() {
+        this(DEFAULT_INITIAL_SIZE, DEFAULT_MAX_LOAD);
+    }
+
+    public IntObjectHashMap(int initialSize) {
+        this(initialSize, DEFAULT_MAX_LOAD);
+    }
+
+    /**
+     * IntObjectHashMap constructor that creates a backing array of at least
+     * initialSize slots. The load factor (# items / # slots) is always kept
+     * <= maxLoad.
+     *
+     * @param initialSize initial size of backing array
+     * @param maxLoad maximum load factor, strictly between 0 and 1
+     */
+    public IntObjectHashMap(int initialSize, double maxLoad) {
+        if (initialSize < 1 || maxLoad <= 0 || maxLoad >= 1) {
+            throw new IllegalArgumentException();
+        }
+        this.maxLoad = maxLoad;
+        int cap = 1;
+        while (cap < initialSize) {
+            cap <<= 1;
+        }
+        createTable(cap);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void createTable(int tableSize) {
+        keys = new int[tableSize];
+        values = (V[]) new Object[tableSize];
+        threshold = Math.min(tableSize - 1, (int) (tableSize * maxLoad));
+    }
+
+    /** Scrambles KEY so that sequential keys do not cluster. */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** Returns the slot holding the non-zero KEY, or -1. */
+    private int indexOf(int key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        int k;
+        while ((k = keys[i]) != 0) {
+            if (k == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void resize(int newSize) {
+        int[] oldKeys = keys;
+        V[] oldValues = values;
+        createTable(newSize);
+        int mask = newSize - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            int k = oldKeys[j];
+            if (k != 0) {
+                int i = hash(k) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = k;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        createTable(keys.length);
+        size = 0;
+        hasZeroKey = false;
+        zeroValue = null;
+    }
+
+    public boolean containsKey(int key) {
+        return key == 0 ? hasZeroKey : indexOf(key) >= 0;
+    }
+
+    public V get(int key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+        int i = indexOf(key);
+        return i < 0 ? null : values[i];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public void put(int key, V value) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size += 1;
+            }
+            zeroValue = value;
+            return;
+        }
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        int k;
+        while ((k = keys[i]) != 0) {
+            if (k == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size += 1;
+        if (size - (hasZeroKey ? 1 : 0) > threshold) {
+            resize(keys.length * 2);
+        }
+    }
+
+    /** Removes the entry for KEY if present and returns its value. */
+    public V remove(int key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                return null;
+            }
+            V old = zeroValue;
+            hasZeroKey = false;
+            zeroValue = null;
+            size -= 1;
+            return old;
+        }
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        V old = values[i];
+        shiftKeys(i);
+        size -= 1;
+        return old;
+    }
+
+    /**
+     * Empties slot POS and moves later members of its probe run back so
+     * that no lookup has to step over a hole. This keeps the table free of
+     * tombstones.
+     */
+    private void shiftKeys(int pos) {
+        int mask = keys.length - 1;
+        while (true) {
+            int last = pos;
+            pos = (pos + 1) & mask;
+            int k;
+            while (true) {
+                k = keys[pos];
+                if (k == 0) {
+                    keys[last] = 0;
+                    values[last] = null;
+                    return;
+                }
+                int slot = hash(k) & mask;
+                /* Stop at an entry whose home slot is not strictly after
+                 * LAST in circular order; it may legally move into LAST. */
+                if (last <= pos ? (last >= slot || slot > pos) : (last >= slot && slot > pos)) {
+                    break;
+                }
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = k;
+            values[last] = values[pos];
+        }
+    }
+
+    /** Returns a fresh array holding every key in this map. */
+    public int[] keys() {
+        int[] result = new int[size];
+        int n = 0;
+        if (hasZeroKey) {
+            result[n++] = 0;
+        }
+        for (int k : keys) {
+            if (k != 0) {
+                result[n++] = k;
+            }
+        }
+        return result;
+    }
+
+    /* Boxed Map61B methods. */
+
+    @Override
+    public boolean containsKey(Integer key) {
+        return containsKey(key.intValue());
+    }
+
+    @Override
+    public V get(Integer key) {
+        return get(key.intValue());
+    }
+
+    @Override
+    public void put(Integer key, V value) {
+        put(key.intValue(), value);
+    }
+
+    @Override
+    public V remove(Integer key) {
+        return remove(key.intValue());
+    }
+
+    @Override
+    public V remove(Integer key, V value) {
+        int k = key;
+        if (!containsKey(k)) {
+            return null;
+        }
+        V v = get(k);
+        if (v == null ? value != null : !v.equals(value)) {
+            return null;
+        }
+        return remove(k);
+    }
+
+    @Override
+    public Set<Integer> keySet() {
+        Set<Integer> result = new HashSet<>();
+        for (int k : keys()) {
+            result.add(k);
+        }
+        return result;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<Integer>() {
+            private final int[] snapshot = keys();
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < snapshot.length;
+            }
+
+            @Override
+            public Integer next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return snapshot[next++];
+            }
+        };
+    }
+}
@@ -0,0 +1,292 @@
+package hashmap;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ *  A hash map from primitive long keys to object values. Keys are stored in
+ *  a long[] and probed linearly, so put(long, V), get(long) and
+ *  containsKey(long) never box.
+ *
+ *  The boxed Map61B methods are provided for interoperability and simply
+ *  unbox their argument. The key 0 marks an empty slot in the table and is
+ *  therefore kept outside of it.
+ */
+public class LongObjectHashMap<V> implements Map61B<Long, V> {
+
+    private static final int DEFAULT_INITIAL_SIZE = 16;
+    private static final double DEFAULT_MAX_LOAD = 0.75;
+
+    /* Instance Variables */
+    private long[] keys;
+    private V[] values;
+    private int size;
+    private final double maxLoad;
+    /** Number of entries allowed in the table before it is doubled. */
+    private int threshold;
+
+    /** Whether the key 0 is present, and its value. */
+    private boolean hasZeroKey;
+    private V zeroValue;
+
+    /** Constructors */
+    public LongObjectHashMap() {
+        this(DEFAULT_INITIAL_SIZE, DEFAULT_MAX_LOAD);
+    }
+
+    public LongObjectHashMap(int initialSize) {
+        this(initialSize, DEFAULT_MAX_LOAD);
+    }
+
+    /**
+     * LongObjectHashMap constructor that creates a backing array of at least
+     * initialSize slots. The load factor (# items / # slots) is always kept
+     * <= maxLoad.
+     *
+     * @param initialSize initial size of backing array
+     * @param maxLoad maximum load factor, strictly between 0 and 1
+     */
+    public LongObjectHashMap(int initialSize, double maxLoad) {
+        if (initialSize < 1 || maxLoad <= 0 || maxLoad >= 1) {
+            throw new IllegalArgumentException();
+        }
+        this.maxLoad = maxLoad;
+        int cap = 1;
+        while (cap < initialSize) {
+            cap <<= 1;
+        }
+        createTable(cap);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void createTable(int tableSize) {
+        keys = new long[tableSize];
+        values = (V[]) new Object[tableSize];
+        threshold = Math.min(tableSize - 1, (int) (tableSize * maxLoad));
+    }
+
+    /** Scrambles KEY so that sequential keys do not cluster. */
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /** Returns the slot holding the non-zero KEY, or -1. */
+    private int indexOf(long key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        long k;
+        while ((k = keys[i]) != 0) {
+            if (k == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void resize(int newSize) {
+        long[] oldKeys = keys;
+        V[] oldValues = values;
+        createTable(newSize);
+        int mask = newSize - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            long k = oldKeys[j];
+            if (k != 0) {
+                int i = hash(k) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = k;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        createTable(keys.length);
+        size = 0;
+        hasZeroKey = false;
+        zeroValue = null;
+    }
+
+    public boolean containsKey(long key) {
+        return key == 0 ? hasZeroKey : indexOf(key) >= 0;
+    }
+
+    public V get(long key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+        int i = indexOf(key);
+        return i < 0 ? null : values[i];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public void put(long key, V value) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size += 1;
+            }
+            zeroValue = value;
+            return;
+        }
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        long k;
+        while ((k = keys[i]) != 0) {
+            if (k == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size += 1;
+        if (size - (hasZeroKey ? 1 : 0) > threshold) {
+            resize(keys.length * 2);
+        }
+    }
+
+    /** Removes the entry for KEY if present and returns its value. */
+    public V remove(long key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                return null;
+            }
+            V old = zeroValue;
+            hasZeroKey = false;
+            zeroValue = null;
+            size -= 1;
+            return old;
+        }
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        V old = values[i];
+        shiftKeys(i);
+        size -= 1;
+        return old;
+    }
+
+    /**
+     * Empties slot POS and moves later members of its probe run back so
+     * that no lookup has to step over a hole. This keeps the table free of
+     * tombstones.
+     */
+    private void shiftKeys(int pos) {
+        int mask = keys.length - 1;
+        while (true) {
+            int last = pos;
+            pos = (pos + 1) & mask;
+            long k;
+            while (true) {
+                k = keys[pos];
+                if (k == 0) {
+                    keys[last] = 0;
+                    values[last] = null;
+                    return;
+                }
+                int slot = hash(k) & mask;
+                /* Stop at an entry whose home slot is not strictly after
+                 * LAST in circular order; it may legally move into LAST. */
+                if (last <= pos ? (last >= slot || slot > pos) : (last >= slot && slot > pos)) {
+                    break;
+                }
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = k;
+            values[last] = values[pos];
+        }
+    }
+
+    /** Returns a fresh array holding every key in this map. */
+    public long[] keys() {
+        long[] result = new long[size];
+        int n = 0;
+        if (hasZeroKey) {
+            result[n++] = 0;
+        }
+        for (long k : keys) {
+            if (k != 0) {
+                result[n++] = k;
+            }
+        }
+        return result;
+    }
+
+    /* Boxed Map61B methods. */
+
+    @Override
+    public boolean containsKey(Long key) {
+        return containsKey(key.longValue());
+    }
+
+    @Override
+    public V get(Long key) {
+        return get(key.longValue());
+    }
+
+    @Override
+    public void put(Long key, V value) {
+        put(key.longValue(), value);
+    }
+
+    @Override
+    public V remove(Long key) {
+        return remove(key.longValue());
+    }
+
+    @Override
+    public V remove(Long key, V value) {
+        long k = key;
+        if (!containsKey(k)) {
+            return null;
+        }
+        V v = get(k);
+        if (v == null ? value != null : !v.equals(value)) {
+            return null;
+        }
+        return remove(k);
+    }
+
+    @Override
+    public Set<Long> keySet() {
+        Set<Long> result = new HashSet<>();
+        for (long k : keys()) {
+            result.add(k);
+        }
+        return result;
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        return new Iterator<Long>() {
+            private final long[] snapshot = keys();
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < snapshot.length;
+            }
+
+            @Override
+            public Long next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return snapshot[next++];
+            }
+        };
+    }
+}
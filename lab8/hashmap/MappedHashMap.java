@@ -0,0 +1,486 @@
+package hashmap;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ *  A hash map from byte[] keys to byte[] values that lives in memory-mapped
+ *  files rather than on the Java heap. Keys are compared by content, not by
+ *  identity as byte[].equals would.
+ *
+ *  The map occupies a directory holding two files:
+ *   - data, an append-only log of (key length, value length, key, value)
+ *     records;
+ *   - index, a header followed by an open-addressing table whose slots hold
+ *     a record offset and the key's hash.
+ *  Both files are mapped in fixed-size segments, so neither is limited to
+ *  the 2 GiB a single MappedByteBuffer can cover. Because all state lives in
+ *  these files, reopening a directory gives back the populated map without
+ *  reading it. Call close() (or force()) to flush it to disk.
+ *
+ *  Overwritten and removed records are not reclaimed from the data file
+ *  until clear() is called. keySet() returns a TreeSet ordered by
+ *  Arrays.compare, since a HashSet<byte[]> would compare keys by identity.
+ *
+ *  Not thread-safe. Assumes null keys and values will never be inserted.
+ */
+public class MappedHashMap implements Map61B<byte[], byte[]>, Closeable {
+
+    private static final int DEFAULT_INITIAL_SIZE = 1024;
+    private static final double DEFAULT_MAX_LOAD = 0.5;
+
+    private static final long MAGIC = 0x61b0_6d61_7073_0001L;
+
+    /* Index header layout. */
+    private static final int MAGIC_OFFSET = 0;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int SIZE_OFFSET = 12;
+    private static final int USED_OFFSET = 16;
+    private static final int DATA_END_OFFSET = 24;
+    private static final int HEADER_SIZE = 32;
+
+    /* Index slots: a long record reference followed by an int hash. */
+    private static final int SLOT_SIZE = 16;
+    private static final long EMPTY = 0;
+    private static final long TOMBSTONE = -1;
+
+    /** Size of a data record's length prefix. */
+    private static final int RECORD_HEADER = 8;
+
+    /* Instance Variables */
+    private final Path indexPath;
+    private final MappedFile data;
+    private MappedFile index;
+    private final double maxLoad;
+    /* Cached copies of the index header fields. */
+    private int capacity;
+    private int size;
+    /** Live entries plus tombstones. */
+    private int used;
+    private long dataEnd;
+
+    /** Opens or creates the map stored in DIR. */
+    public MappedHashMap(File dir) {
+        this(dir, DEFAULT_INITIAL_SIZE, DEFAULT_MAX_LOAD);
+    }
+
+    /**
+     * Opens the map stored in DIR, creating it with an index table of at
+     * least initialSize slots if DIR holds no map yet. The load factor
+     * ((# items + # tombstones) / # slots) is always kept <= maxLoad.
+     *
+     * @param dir directory holding the index and data files
+     * @param initialSize initial size of a newly created index table
+     * @param maxLoad maximum load factor, strictly between 0 and 1
+     */
+    public MappedHashMap(File dir, int initialSize, double maxLoad) {
+        if (initialSize < 1 || maxLoad <= 0 || maxLoad >= 1) {
+            throw new IllegalArgumentException();
+        }
+        this.maxLoad = maxLoad;
+        try {
+            Files.createDirectories(dir.toPath());
+            indexPath = dir.toPath().resolve("index");
+            data = new MappedFile(dir.toPath().resolve("data"));
+            if (Files.exists(indexPath) && Files.size(indexPath) > 0) {
+                index = new MappedFile(indexPath);
+                if (index.getLong(MAGIC_OFFSET) != MAGIC) {
+                    throw new IllegalArgumentException("not a MappedHashMap: " + dir);
+                }
+                capacity = index.getInt(CAPACITY_OFFSET);
+                size = index.getInt(SIZE_OFFSET);
+                used = index.getInt(USED_OFFSET);
+                dataEnd = index.getLong(DATA_END_OFFSET);
+            } else {
+                int cap = 1;
+                while (cap < initialSize) {
+                    cap <<= 1;
+                }
+                installIndex(createIndex(cap), cap, 0, 0);
+            }
+        } catch (IOException excp) {
+            throw new UncheckedIOException(excp);
+        }
+    }
+
+    /* ------------------------------- Index ------------------------------- */
+
+    /**
+     * Creates an empty index table of tableSize slots in a temporary file.
+     * The live index is left alone until installIndex is called.
+     */
+    private MappedFile createIndex(int tableSize) throws IOException {
+        Path tmp = indexPath.resolveSibling("index.tmp");
+        Files.deleteIfExists(tmp);
+        MappedFile table = new MappedFile(tmp);
+        table.ensure(HEADER_SIZE + (long) tableSize * SLOT_SIZE);
+        table.putLong(MAGIC_OFFSET, MAGIC);
+        table.putInt(CAPACITY_OFFSET, tableSize);
+        return table;
+    }
+
+    /**
+     * Makes TABLE, a fully populated table from createIndex with tableSize
+     * slots holding newSize entries and no tombstones, the live index. Its
+     * header is written and it and the data file are forced to disk before
+     * it is moved over the index file, so a crash at any point leaves
+     * either the old index or the complete new one.
+     */
+    private void installIndex(MappedFile table, int tableSize, int newSize,
+                              long newDataEnd) throws IOException {
+        table.putInt(SIZE_OFFSET, newSize);
+        table.putInt(USED_OFFSET, newSize);
+        table.putLong(DATA_END_OFFSET, newDataEnd);
+        data.force();
+        table.force();
+        Files.move(indexPath.resolveSibling("index.tmp"), indexPath,
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        MappedFile old = index;
+        index = table;
+        capacity = tableSize;
+        size = newSize;
+        used = newSize;
+        dataEnd = newDataEnd;
+        if (old != null) {
+            old.close();
+        }
+    }
+
+    private void writeHeader() {
+        index.putInt(SIZE_OFFSET, size);
+        index.putInt(USED_OFFSET, used);
+        index.putLong(DATA_END_OFFSET, dataEnd);
+    }
+
+    private static long slotOffset(int i) {
+        return HEADER_SIZE + (long) i * SLOT_SIZE;
+    }
+
+    /** Hashes the contents of KEY. */
+    private static int hash(byte[] key) {
+        int h = Arrays.hashCode(key) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** Returns the slot holding KEY, or -1. */
+    private int indexOf(byte[] key, int h) {
+        int mask = capacity - 1;
+        int i = h & mask;
+        while (true) {
+            long ref = index.getLong(slotOffset(i));
+            if (ref == EMPTY) {
+                return -1;
+            }
+            if (ref != TOMBSTONE && index.getInt(slotOffset(i) + 8) == h
+                    && keyEquals(ref - 1, key)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * Rebuilds the index with newSize slots, dropping all tombstones. The
+     * new table is filled in a temporary file and only then installed, so
+     * a failure part way leaves the old index in place.
+     */
+    private void resize(int newSize) {
+        try {
+            MappedFile table = createIndex(newSize);
+            int mask = newSize - 1;
+            for (int j = 0; j < capacity; j++) {
+                long ref = index.getLong(slotOffset(j));
+                if (ref != EMPTY && ref != TOMBSTONE) {
+                    int h = index.getInt(slotOffset(j) + 8);
+                    int i = h & mask;
+                    while (table.getLong(slotOffset(i)) != EMPTY) {
+                        i = (i + 1) & mask;
+                    }
+                    table.putLong(slotOffset(i), ref);
+                    table.putInt(slotOffset(i) + 8, h);
+                }
+            }
+            installIndex(table, newSize, size, dataEnd);
+        } catch (IOException excp) {
+            throw new UncheckedIOException(excp);
+        }
+    }
+
+    /* ------------------------------- Data ------------------------------- */
+
+    /** Returns true if the record at OFFSET has key KEY. */
+    private boolean keyEquals(long offset, byte[] key) {
+        if (data.getInt(offset) != key.length) {
+            return false;
+        }
+        return Arrays.equals(data.getBytes(offset + RECORD_HEADER, key.length), key);
+    }
+
+    private byte[] readKey(long offset) {
+        return data.getBytes(offset + RECORD_HEADER, data.getInt(offset));
+    }
+
+    private byte[] readValue(long offset) {
+        int keyLength = data.getInt(offset);
+        int valueLength = data.getInt(offset + 4);
+        return data.getBytes(offset + RECORD_HEADER + keyLength, valueLength);
+    }
+
+    /** Appends a record for KEY and VALUE and returns its offset. */
+    private long append(byte[] key, byte[] value) {
+        long length = RECORD_HEADER + (long) key.length + value.length;
+        if (length > MappedFile.SEGMENT_SIZE) {
+            throw new IllegalArgumentException("entry larger than "
+                    + MappedFile.SEGMENT_SIZE + " bytes");
+        }
+        long offset = dataEnd;
+        /* Records never straddle two segments. */
+        long segmentEnd = (offset / MappedFile.SEGMENT_SIZE + 1) * MappedFile.SEGMENT_SIZE;
+        if (offset + length > segmentEnd) {
+            offset = segmentEnd;
+        }
+        data.ensure(offset + length);
+        data.putInt(offset, key.length);
+        data.putInt(offset + 4, value.length);
+        data.putBytes(offset + RECORD_HEADER, key);
+        data.putBytes(offset + RECORD_HEADER + key.length, value);
+        /* Keep later int reads 4-byte aligned. */
+        dataEnd = (offset + length + 3) & ~3L;
+        return offset;
+    }
+
+    /* ------------------------------- Map61B ------------------------------- */
+
+    /** Removes every entry and discards the contents of the data file. */
+    @Override
+    public void clear() {
+        try {
+            installIndex(createIndex(capacity), capacity, 0, 0);
+        } catch (IOException excp) {
+            throw new UncheckedIOException(excp);
+        }
+    }
+
+    @Override
+    public boolean containsKey(byte[] key) {
+        return indexOf(key, hash(key)) >= 0;
+    }
+
+    /** Returns a copy of the value stored for KEY, or null. */
+    @Override
+    public byte[] get(byte[] key) {
+        int i = indexOf(key, hash(key));
+        return i < 0 ? null : readValue(index.getLong(slotOffset(i)) - 1);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void put(byte[] key, byte[] value) {
+        int h = hash(key);
+        int i = indexOf(key, h);
+        if (i >= 0) {
+            index.putLong(slotOffset(i), append(key, value) + 1);
+            writeHeader();
+            return;
+        }
+        if (used + 1 > maxLoad * capacity) {
+            resize((size + 1) > maxLoad * capacity / 2 ? capacity * 2 : capacity);
+        }
+        int mask = capacity - 1;
+        i = h & mask;
+        while (true) {
+            long ref = index.getLong(slotOffset(i));
+            if (ref == EMPTY || ref == TOMBSTONE) {
+                if (ref == EMPTY) {
+                    used += 1;
+                }
+                break;
+            }
+            i = (i + 1) & mask;
+        }
+        index.putLong(slotOffset(i), append(key, value) + 1);
+        index.putInt(slotOffset(i) + 8, h);
+        size += 1;
+        writeHeader();
+    }
+
+    /**
+     * Returns a copy of the keys, in a set that compares them by content
+     * so that contains() works with any equal array.
+     */
+    @Override
+    public Set<byte[]> keySet() {
+        Set<byte[]> result = new TreeSet<>(Arrays::compare);
+        for (byte[] key : this) {
+            result.add(key);
+        }
+        return result;
+    }
+
+    private byte[] removeAt(int i) {
+        byte[] old = readValue(index.getLong(slotOffset(i)) - 1);
+        index.putLong(slotOffset(i), TOMBSTONE);
+        size -= 1;
+        writeHeader();
+        return old;
+    }
+
+    @Override
+    public byte[] remove(byte[] key) {
+        int i = indexOf(key, hash(key));
+        return i < 0 ? null : removeAt(i);
+    }
+
+    @Override
+    public byte[] remove(byte[] key, byte[] value) {
+        int i = indexOf(key, hash(key));
+        if (i < 0 || !Arrays.equals(readValue(index.getLong(slotOffset(i)) - 1), value)) {
+            return null;
+        }
+        return removeAt(i);
+    }
+
+    /** Returns an iterator over copies of the keys, in table order. */
+    @Override
+    public Iterator<byte[]> iterator() {
+        return new Iterator<byte[]>() {
+            private int next = advance(0);
+
+            private int advance(int i) {
+                while (i < capacity) {
+                    long ref = index.getLong(slotOffset(i));
+                    if (ref != EMPTY && ref != TOMBSTONE) {
+                        break;
+                    }
+                    i += 1;
+                }
+                return i;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < capacity;
+            }
+
+            @Override
+            public byte[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                byte[] key = readKey(index.getLong(slotOffset(next)) - 1);
+                next = advance(next + 1);
+                return key;
+            }
+        };
+    }
+
+    /** Writes every change made so far through to the files. */
+    public void force() {
+        index.force();
+        data.force();
+    }
+
+    /** Flushes the map to disk and releases its files. */
+    @Override
+    public void close() {
+        try {
+            force();
+            index.close();
+            data.close();
+        } catch (IOException excp) {
+            throw new UncheckedIOException(excp);
+        }
+    }
+
+    /**
+     * A file mapped into memory as a list of SEGMENT_SIZE buffers, grown
+     * on demand. Multi-byte reads and writes must not cross a segment
+     * boundary.
+     */
+    private static class MappedFile implements Closeable {
+        static final int SEGMENT_BITS = 24;
+        static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+        static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+        private final FileChannel channel;
+        private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+        MappedFile(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            ensure(channel.size());
+        }
+
+        /** Maps enough segments to cover the first LENGTH bytes. */
+        void ensure(long length) {
+            try {
+                while (((long) segments.size() << SEGMENT_BITS) < length) {
+                    long start = (long) segments.size() << SEGMENT_BITS;
+                    segments.add(channel.map(FileChannel.MapMode.READ_WRITE, start, SEGMENT_SIZE));
+                }
+            } catch (IOException excp) {
+                throw new UncheckedIOException(excp);
+            }
+        }
+
+        private MappedByteBuffer segment(long offset) {
+            return segments.get((int) (offset >>> SEGMENT_BITS));
+        }
+
+        long getLong(long offset) {
+            return segment(offset).getLong((int) (offset & SEGMENT_MASK));
+        }
+
+        void putLong(long offset, long value) {
+            segment(offset).putLong((int) (offset & SEGMENT_MASK), value);
+        }
+
+        int getInt(long offset) {
+            return segment(offset).getInt((int) (offset & SEGMENT_MASK));
+        }
+
+        void putInt(long offset, int value) {
+            segment(offset).putInt((int) (offset & SEGMENT_MASK), value);
+        }
+
+        byte[] getBytes(long offset, int length) {
+            byte[] result = new byte[length];
+            segment(offset).get((int) (offset & SEGMENT_MASK), result);
+            return result;
+        }
+
+        void putBytes(long offset, byte[] bytes) {
+            segment(offset).put((int) (offset & SEGMENT_MASK), bytes);
+        }
+
+        void force() {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -1,11 +1,32 @@
 package hashmap;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 /**
  *  A hash table-backed Map implementation. Provides amortized constant time
  *  access to elements via get(), remove(), and put() in the best case.
  *
+ *  Resizing is incremental: once the load factor is exceeded a table of
+ *  twice the size is created, and the old table is kept alongside it. Each
+ *  later put() or remove() then moves a bounded number of old buckets
+ *  over, so no single put() pays for rehashing the whole map. The number
+ *  moved per operation is chosen when the resize starts so that the old
+ *  table is always empty before the next resize is due. get() and
+ *  containsKey() never move buckets, so they are safe to call while
+ *  iterating.
+ *
+ *  Bucket indices come from key.hashCode() passed through a pluggable
+ *  HashSpreader, and stats() reports how evenly the keys ended up spread.
+ *  A map constructed with recordProbes set also counts the entries every
+ *  get() and containsKey() compares against, which shows hot keys stuck
+ *  at the end of long chains; other maps pay nothing for it.
+ *
  *  Assumes null keys will never be inserted, and does not resize down upon remove().
  *  @author YOUR NAME HERE
  */
@@ -25,14 +46,46 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
         }
     }
 
+    private static final int DEFAULT_INITIAL_SIZE = 16;
+    private static final double DEFAULT_MAX_LOAD = 0.75;
+    /** Fewest old-table slots migrated by each operation during a resize. */
+    private static final int MIGRATE_STEP = 8;
+
     /* Instance Variables */
+    /** The table new entries are inserted into. Empty buckets are null. */
     private Collection<Node>[] buckets;
-    // You should probably define some more!
+    /**
+     * The table being migrated out of, or null when no resize is in
+     * progress. A slot is set to null once its bucket has been moved.
+     */
+    private Collection<Node>[] oldBuckets;
+    /** Index of the next oldBuckets slot to migrate. */
+    private int migrateIndex;
+    /** Number of old-table slots each mutator migrates in this resize. */
+    private int migrateBudget;
+    private int size;
+    private final int initialSize;
+    private final double maxLoad;
+    private final HashSpreader spreader;
+    private final boolean recordProbes;
+
+    /* Counters reported by stats(). */
+    /** Lookups and the entries they compared against, if recordProbes. */
+    private long lookups;
+    private long probes;
+    private int resizes;
+    private long resizeNanos;
+    /** Times a resize started before the previous one had drained. */
+    private int forcedFinishes;
 
     /** Constructors */
-    public MyHashMap() { }
+    public MyHashMap() {
+        this(DEFAULT_INITIAL_SIZE, DEFAULT_MAX_LOAD);
+    }
 
-    public MyHashMap(int initialSize) { }
+    public MyHashMap(int initialSize) {
+        this(initialSize, DEFAULT_MAX_LOAD);
+    }
 
     /**
      * MyHashMap constructor that creates a backing array of initialSize.
@@ -41,13 +94,49 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
      * @param initialSize initial size of backing array
      * @param maxLoad maximum load factor
      */
-    public MyHashMap(int initialSize, double maxLoad) { }
+    public MyHashMap(int initialSize, double maxLoad) {
+        this(initialSize, maxLoad, HashSpreader.IDENTITY);
+    }
+
+    /**
+     * MyHashMap constructor that creates a backing array of initialSize
+     * and chooses buckets by passing each key's hashCode() through spreader.
+     *
+     * @param initialSize initial size of backing array
+     * @param maxLoad maximum load factor
+     * @param spreader function applied to hash codes before indexing
+     */
+    public MyHashMap(int initialSize, double maxLoad, HashSpreader spreader) {
+        this(initialSize, maxLoad, spreader, false);
+    }
+
+    /**
+     * MyHashMap constructor that creates a backing array of initialSize,
+     * chooses buckets through spreader, and, if recordProbes is set,
+     * counts the entries each lookup compares against for stats().
+     *
+     * @param initialSize initial size of backing array
+     * @param maxLoad maximum load factor
+     * @param spreader function applied to hash codes before indexing
+     * @param recordProbes whether get() and containsKey() count probes
+     */
+    public MyHashMap(int initialSize, double maxLoad, HashSpreader spreader,
+                     boolean recordProbes) {
+        if (initialSize < 1 || maxLoad <= 0 || spreader == null) {
+            throw new IllegalArgumentException();
+        }
+        this.initialSize = initialSize;
+        this.maxLoad = maxLoad;
+        this.spreader = spreader;
+        this.recordProbes = recordProbes;
+        buckets = createTable(initialSize);
+    }
 
     /**
      * Returns a new node to be placed in a hash table bucket
      */
     private Node createNode(K key, V value) {
-        return null;
+        return new Node(key, value);
     }
 
     /**
@@ -69,7 +158,7 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
      * OWN BUCKET DATA STRUCTURES WITH THE NEW OPERATOR!
      */
     protected Collection<Node> createBucket() {
-        return null;
+        return new LinkedList<>();
     }
 
     /**
@@ -79,13 +168,318 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
      * BE SURE TO CALL THIS FACTORY METHOD WHEN CREATING A TABLE SO
      * THAT ALL BUCKET TYPES ARE OF JAVA.UTIL.COLLECTION
      *
+     * Buckets are created lazily by createBucket() on first insertion,
+     * so the returned table starts out with every slot null.
+     *
      * @param tableSize the size of the table to create
      */
+    @SuppressWarnings({"unchecked", "rawtypes"})
     private Collection<Node>[] createTable(int tableSize) {
+        return new Collection[tableSize];
+    }
+
+    /** Returns the index of KEY in a table of the given length. */
+    private int index(K key, int length) {
+        return Math.floorMod(spreader.spread(key.hashCode()), length);
+    }
+
+    /** Returns the node in BUCKET whose key equals KEY, or null. */
+    private Node find(Collection<Node> bucket, K key) {
+        if (bucket == null) {
+            return null;
+        }
+        for (Node n : bucket) {
+            if (n.key.equals(key)) {
+                return n;
+            }
+        }
         return null;
     }
 
-    // TODO: Implement the methods of the Map61B Interface below
-    // Your code won't compile until you do so!
+    /** Adds NODE to the current table, creating its bucket if needed. */
+    private void insert(Node node) {
+        int i = index(node.key, buckets.length);
+        if (buckets[i] == null) {
+            buckets[i] = createBucket();
+        }
+        buckets[i].add(node);
+    }
+
+    /* ------------------------------- Resizing ------------------------------- */
+
+    /**
+     * Starts migrating into a table of newSize buckets. The put() that
+     * calls this is about to raise the size by one; after it, every put()
+     * until the size passes maxLoad * newSize migrates first, and so does
+     * every remove(), which only delays the next resize. Spreading the old
+     * slots over those puts guarantees the migration finishes in time.
+     */
+    private void startResize(int newSize) {
+        if (oldBuckets != null) {
+            forcedFinishes += 1;
+            finishResize();
+        }
+        long start = System.nanoTime();
+        long puts = Math.max(1, (long) Math.floor(maxLoad * newSize) - size);
+        oldBuckets = buckets;
+        buckets = createTable(newSize);
+        migrateIndex = 0;
+        migrateBudget = (int) Math.max(MIGRATE_STEP, (oldBuckets.length + puts - 1) / puts);
+        resizes += 1;
+        resizeNanos += System.nanoTime() - start;
+    }
+
+    /** Moves the old bucket at index i, if any, into the current table. */
+    private void migrateBucket(int i) {
+        Collection<Node> bucket = oldBuckets[i];
+        if (bucket != null) {
+            oldBuckets[i] = null;
+            for (Node n : bucket) {
+                insert(n);
+            }
+        }
+    }
+
+    /** Migrates the next migrateBudget old slots, if a resize is in progress. */
+    private void migrateStep() {
+        if (oldBuckets == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        int end = (int) Math.min((long) migrateIndex + migrateBudget, oldBuckets.length);
+        for (; migrateIndex < end; migrateIndex++) {
+            migrateBucket(migrateIndex);
+        }
+        if (migrateIndex == oldBuckets.length) {
+            oldBuckets = null;
+        }
+        resizeNanos += System.nanoTime() - start;
+    }
 
+    /**
+     * Migrates every remaining old bucket. The migration budget makes this
+     * unreachable in practice; it is kept so that the map stays correct
+     * even if that reasoning is ever broken.
+     */
+    private void finishResize() {
+        while (oldBuckets != null) {
+            migrateStep();
+        }
+    }
+
+    /**
+     * Ensures that KEY, if present, lives in the current table rather than
+     * in a not-yet-migrated old bucket.
+     */
+    private void migrateKey(K key) {
+        if (oldBuckets != null) {
+            migrateBucket(index(key, oldBuckets.length));
+        }
+    }
+
+    /** Returns the node holding KEY in either table, or null. */
+    private Node findNode(K key) {
+        Collection<Node> bucket = null;
+        if (oldBuckets != null) {
+            /* If the key's old bucket has not been migrated yet, the key
+             * cannot be in the current table. */
+            bucket = oldBuckets[index(key, oldBuckets.length)];
+        }
+        if (bucket == null) {
+            bucket = buckets[index(key, buckets.length)];
+        }
+        return recordProbes ? findCounting(bucket, key) : find(bucket, key);
+    }
+
+    /** As find(), also counting the lookup and its probes for stats(). */
+    private Node findCounting(Collection<Node> bucket, K key) {
+        lookups += 1;
+        if (bucket == null) {
+            return null;
+        }
+        for (Node n : bucket) {
+            probes += 1;
+            if (n.key.equals(key)) {
+                return n;
+            }
+        }
+        return null;
+    }
+
+    /** Returns the number of resizes that had to finish the previous one. */
+    int forcedFinishes() {
+        return forcedFinishes;
+    }
+
+    /**
+     * Returns a snapshot of the chain lengths, the probe counters (zero
+     * unless the map records probes) and the resize counters. While a
+     * resize is in progress, the not-yet-migrated old buckets are counted
+     * alongside the current table.
+     */
+    public HashMapStats stats() {
+        int[] histogram = new int[1];
+        histogram = addChainLengths(histogram, buckets, true);
+        if (oldBuckets != null) {
+            histogram = addChainLengths(histogram, oldBuckets, false);
+        }
+        return new HashMapStats(histogram, lookups, probes, resizes, resizeNanos);
+    }
+
+    /**
+     * Adds the chain length of every bucket in TABLE to HISTOGRAM, growing
+     * it as needed. Empty slots are only counted if COUNTEMPTY is set.
+     */
+    private int[] addChainLengths(int[] histogram, Collection<Node>[] table, boolean countEmpty) {
+        for (Collection<Node> bucket : table) {
+            if (bucket == null) {
+                if (countEmpty) {
+                    histogram[0] += 1;
+                }
+                continue;
+            }
+            int n = bucket.size();
+            if (n >= histogram.length) {
+                histogram = Arrays.copyOf(histogram, n + 1);
+            }
+            histogram[n] += 1;
+        }
+        return histogram;
+    }
+
+    /* ------------------------------- Map61B ------------------------------- */
+
+    @Override
+    public void clear() {
+        buckets = createTable(initialSize);
+        oldBuckets = null;
+        size = 0;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return findNode(key) != null;
+    }
+
+    @Override
+    public V get(K key) {
+        Node n = findNode(key);
+        return n == null ? null : n.value;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        migrateStep();
+        if (size + 1 > maxLoad * buckets.length) {
+            startResize(buckets.length * 2);
+        }
+        migrateKey(key);
+        Node n = find(buckets[index(key, buckets.length)], key);
+        if (n != null) {
+            n.value = value;
+            return;
+        }
+        insert(createNode(key, value));
+        size += 1;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        Set<K> result = new HashSet<>();
+        for (K key : this) {
+            result.add(key);
+        }
+        return result;
+    }
+
+    /**
+     * Removes the mapping for KEY if present and, when MATCHVALUE is set,
+     * only if KEY is mapped to VALUE. Returns the removed value.
+     */
+    private V remove(K key, V value, boolean matchValue) {
+        migrateStep();
+        migrateKey(key);
+        Collection<Node> bucket = buckets[index(key, buckets.length)];
+        Node n = find(bucket, key);
+        if (n == null) {
+            return null;
+        }
+        if (matchValue && (n.value == null ? value != null : !n.value.equals(value))) {
+            return null;
+        }
+        bucket.remove(n);
+        size -= 1;
+        return n.value;
+    }
+
+    @Override
+    public V remove(K key) {
+        return remove(key, null, false);
+    }
+
+    @Override
+    public V remove(K key, V value) {
+        return remove(key, value, true);
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new KeyIterator();
+    }
+
+    /**
+     * An iterator over the keys of the not-yet-migrated old buckets
+     * followed by those of the current table.
+     */
+    private class KeyIterator implements Iterator<K> {
+        private final Collection<Node>[][] tables;
+        private int table;
+        private int slot;
+        private Iterator<Node> current;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        KeyIterator() {
+            tables = oldBuckets == null
+                    ? new Collection[][] {buckets}
+                    : new Collection[][] {oldBuckets, buckets};
+            advance();
+        }
+
+        /** Moves current to the next non-empty bucket iterator, if any. */
+        private void advance() {
+            while (current == null || !current.hasNext()) {
+                if (table == tables.length) {
+                    current = null;
+                    return;
+                }
+                Collection<Node> bucket = tables[table][slot];
+                slot += 1;
+                if (slot == tables[table].length) {
+                    table += 1;
+                    slot = 0;
+                }
+                current = bucket == null ? null : bucket.iterator();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current != null;
+        }
+
+        @Override
+        public K next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            K key = current.next().key;
+            advance();
+            return key;
+        }
+    }
 }
@@ -38,6 +38,33 @@ public class MyHashMapALBuckets<K, V> extends MyHashMap<K, V> {
         super(initialSize, maxLoad);
     }
 
+    /**
+     * Constructor that creates a backing array of initialSize and
+     * passes each key's hashCode() through spreader before indexing
+     *
+     * @param initialSize initial size of backing array
+     * @param maxLoad maximum load factor
+     * @param spreader function applied to hash codes
+     */
+    public MyHashMapALBuckets(int initialSize, double maxLoad, HashSpreader spreader) {
+        super(initialSize, maxLoad, spreader);
+    }
+
+    /**
+     * Constructor that creates a backing array of initialSize, passes
+     * each key's hashCode() through spreader, and counts lookup probes
+     * for stats() if recordProbes is set
+     *
+     * @param initialSize initial size of backing array
+     * @param maxLoad maximum load factor
+     * @param spreader function applied to hash codes
+     * @param recordProbes whether get() and containsKey() count probes
+     */
+    public MyHashMapALBuckets(int initialSize, double maxLoad, HashSpreader spreader,
+                              boolean recordProbes) {
+        super(initialSize, maxLoad, spreader, recordProbes);
+    }
+
     @Override
     protected Collection<Node> createBucket() {
         return new ArrayList<>();
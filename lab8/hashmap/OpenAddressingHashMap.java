@@ -0,0 +1,272 @@
+package hashmap;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ *  A hash table-backed Map implementation that uses open addressing with
+ *  linear probing instead of separate chaining. Keys and values live in two
+ *  parallel arrays, so an entry costs two array slots rather than a Node
+ *  object plus a bucket collection.
+ *
+ *  Removed entries leave a tombstone behind so that probe sequences passing
+ *  through them stay intact. Tombstones count towards the load factor and
+ *  are discarded the next time the table is rebuilt.
+ *
+ *  Assumes null keys will never be inserted.
+ */
+public class OpenAddressingHashMap<K, V> implements Map61B<K, V> {
+
+    private static final int DEFAULT_INITIAL_SIZE = 16;
+    private static final double DEFAULT_MAX_LOAD = 0.75;
+
+    /** Marker stored in a key slot whose entry has been removed. */
+    private static final Object TOMBSTONE = new Object();
+
+    /* Instance Variables */
+    private K[] keys;
+    private V[] values;
+    /** Number of live entries. */
+    private int size;
+    /** Number of slots currently holding TOMBSTONE. */
+    private int tombstones;
+    private final double maxLoad;
+
+    /** Constructors */
+    public OpenAddressingHashMap() {
+        this(DEFAULT_INITIAL_SIZE, DEFAULT_MAX_LOAD);
+    }
+
+    public OpenAddressingHashMap(int initialSize) {
+        this(initialSize, DEFAULT_MAX_LOAD);
+    }
+
+    /**
+     * OpenAddressingHashMap constructor that creates backing arrays of at
+     * least initialSize slots. The load factor ((# items + # tombstones) /
+     * # slots) is always kept <= maxLoad.
+     *
+     * @param initialSize initial size of backing arrays
+     * @param maxLoad maximum load factor, strictly between 0 and 1
+     */
+    public OpenAddressingHashMap(int initialSize, double maxLoad) {
+        if (initialSize < 1 || maxLoad <= 0 || maxLoad >= 1) {
+            throw new IllegalArgumentException();
+        }
+        this.maxLoad = maxLoad;
+        createTable(tableSizeFor(initialSize));
+    }
+
+    /** Returns the smallest power of two >= n. */
+    private static int tableSizeFor(int n) {
+        int cap = 1;
+        while (cap < n) {
+            cap <<= 1;
+        }
+        return cap;
+    }
+
+    /** Replaces the backing arrays with empty arrays of tableSize slots. */
+    @SuppressWarnings("unchecked")
+    private void createTable(int tableSize) {
+        keys = (K[]) new Object[tableSize];
+        values = (V[]) new Object[tableSize];
+        size = 0;
+        tombstones = 0;
+    }
+
+    /** Spreads the high bits of KEY's hash code into the low bits. */
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the slot holding KEY, or -1 if KEY is not present.
+     */
+    private int indexOf(K key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (true) {
+            K k = keys[i];
+            if (k == null) {
+                return -1;
+            }
+            if (k != TOMBSTONE && k.equals(key)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * Rebuilds the table with newSize slots, dropping all tombstones.
+     */
+    private void resize(int newSize) {
+        K[] oldKeys = keys;
+        V[] oldValues = values;
+        createTable(newSize);
+        int mask = newSize - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            K k = oldKeys[j];
+            if (k != null && k != TOMBSTONE) {
+                int i = hash(k) & mask;
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = k;
+                values[i] = oldValues[j];
+                size += 1;
+            }
+        }
+    }
+
+    /** Returns the number of slots in the table. */
+    int capacity() {
+        return keys.length;
+    }
+
+    @Override
+    public void clear() {
+        createTable(keys.length);
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public V get(K key) {
+        int i = indexOf(key);
+        return i < 0 ? null : values[i];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        int firstTombstone = -1;
+        while (true) {
+            K k = keys[i];
+            if (k == null) {
+                break;
+            }
+            if (k == TOMBSTONE) {
+                if (firstTombstone < 0) {
+                    firstTombstone = i;
+                }
+            } else if (k.equals(key)) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        if (firstTombstone >= 0) {
+            /* Reusing a tombstone leaves the number of used slots as it was. */
+            i = firstTombstone;
+            tombstones -= 1;
+        } else if ((size + tombstones + 1) > maxLoad * keys.length) {
+            /* If most of the used slots are tombstones, rebuilding at the
+             * same size is enough to make room. */
+            int newSize = (size + 1) > maxLoad * keys.length / 2
+                    ? keys.length * 2 : keys.length;
+            resize(newSize);
+            mask = keys.length - 1;
+            i = hash(key) & mask;
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        size += 1;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        Set<K> result = new HashSet<>();
+        for (K k : this) {
+            result.add(k);
+        }
+        return result;
+    }
+
+    /** Replaces the entry in slot i with a tombstone. */
+    @SuppressWarnings("unchecked")
+    private V removeAt(int i) {
+        V old = values[i];
+        keys[i] = (K) TOMBSTONE;
+        values[i] = null;
+        size -= 1;
+        tombstones += 1;
+        return old;
+    }
+
+    @Override
+    public V remove(K key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        return removeAt(i);
+    }
+
+    @Override
+    public V remove(K key, V value) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        V v = values[i];
+        if (v == null ? value != null : !v.equals(value)) {
+            return null;
+        }
+        return removeAt(i);
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new KeyIterator();
+    }
+
+    /** An iterator over the keys in slot order. */
+    private class KeyIterator implements Iterator<K> {
+        /** Index of the next live slot, or keys.length if there is none. */
+        private int next;
+
+        KeyIterator() {
+            next = advance(0);
+        }
+
+        /** Returns the first live slot at or after i. */
+        private int advance(int i) {
+            while (i < keys.length && (keys[i] == null || keys[i] == TOMBSTONE)) {
+                i += 1;
+            }
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < keys.length;
+        }
+
+        @Override
+        public K next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            K k = keys[next];
+            next = advance(next + 1);
+            return k;
+        }
+    }
+}
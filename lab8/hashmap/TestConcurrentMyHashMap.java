@@ -0,0 +1,107 @@
+package hashmap;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/** Tests of the lock-striped concurrent hash map. */
+public class TestConcurrentMyHashMap {
+
+    @Test
+    public void sanityClearTest() {
+        ConcurrentMyHashMap<String, Integer> b = new ConcurrentMyHashMap<>();
+        for (int i = 0; i < 455; i++) {
+            b.put("hi" + i, 1);
+            assertTrue(null != b.get("hi" + i) && b.containsKey("hi" + i));
+        }
+        assertEquals(455, b.size());
+        b.clear();
+        assertEquals(0, b.size());
+        for (int i = 0; i < 455; i++) {
+            assertTrue(null == b.get("hi" + i) && !b.containsKey("hi" + i));
+        }
+    }
+
+    @Test
+    public void testRemove() {
+        ConcurrentMyHashMap<String, String> q = new ConcurrentMyHashMap<>(1, 0.75, 1);
+        q.put("c", "a");
+        q.put("b", "a");
+        q.put("a", "a");
+        assertNull(q.remove("c", "b"));
+        assertEquals("a", q.remove("c", "a"));
+        assertFalse(q.containsKey("c"));
+        assertEquals("a", q.remove("b"));
+        assertNull(q.remove("b"));
+        assertTrue(q.containsKey("a"));
+        assertEquals(1, q.size());
+    }
+
+    /** Random puts and removes, checked against java.util.HashMap while
+     *  segments are in the middle of incremental resizes. */
+    @Test
+    public void testAgainstHashMapDuringResize() {
+        Random r = new Random(61);
+        for (double load : new double[] {0.1, 0.75, 4}) {
+            ConcurrentMyHashMap<Integer, Integer> b = new ConcurrentMyHashMap<>(1, load, 2);
+            Map<Integer, Integer> expected = new HashMap<>();
+            for (int i = 0; i < 5000; i++) {
+                int k = r.nextInt(2000);
+                if (r.nextInt(3) == 0) {
+                    assertEquals(expected.remove(k), b.remove(k));
+                } else {
+                    expected.put(k, i);
+                    b.put(k, i);
+                }
+                int probe = r.nextInt(2000);
+                assertEquals(expected.get(probe), b.get(probe));
+                assertEquals(expected.containsKey(probe), b.containsKey(probe));
+                assertEquals(expected.size(), b.size());
+                if (i % 500 == 0) {
+                    assertEquals(expected.keySet(), b.keySet());
+                }
+            }
+            assertEquals(expected.keySet(), b.keySet());
+        }
+    }
+
+    /** Many writers insert disjoint keys while readers look them up. */
+    @Test
+    public void concurrentWritersTest() throws InterruptedException {
+        final int nThreads = 8;
+        final int perThread = 20000;
+        final ConcurrentMyHashMap<Integer, Integer> map = new ConcurrentMyHashMap<>();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[nThreads];
+        for (int t = 0; t < nThreads; t++) {
+            final int base = t * perThread;
+            threads[t] = new Thread(() -> {
+                for (int i = base; i < base + perThread; i++) {
+                    map.put(i, i);
+                    assertEquals(Integer.valueOf(i), map.get(i));
+                }
+                for (int i = base; i < base + perThread; i += 2) {
+                    assertEquals(Integer.valueOf(i), map.remove(i));
+                }
+            });
+            threads[t].setUncaughtExceptionHandler((th, e) -> failure.set(e));
+            threads[t].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertNull(failure.get());
+        assertEquals(nThreads * perThread / 2, map.size());
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 1; i < nThreads * perThread; i += 2) {
+            expected.add(i);
+        }
+        assertEquals(expected, map.keySet());
+    }
+}
@@ -0,0 +1,137 @@
+package hashmap;
+
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/** Tests of the memory-mapped hash map. */
+public class TestMappedHashMap {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] b) {
+        return b == null ? null : new String(b, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void keysCompareByContent() throws Exception {
+        try (MappedHashMap m = new MappedHashMap(folder.newFolder())) {
+            m.put(bytes("hello"), bytes("world"));
+            assertTrue(m.containsKey(bytes("hello")));
+            assertEquals("world", string(m.get(bytes("hello"))));
+            m.put(bytes("hello"), bytes("kevin"));
+            assertEquals(1, m.size());
+            assertEquals("kevin", string(m.get(bytes("hello"))));
+            assertNull(m.remove(bytes("hello"), bytes("world")));
+            assertEquals("kevin", string(m.remove(bytes("hello"), bytes("kevin"))));
+            assertEquals(0, m.size());
+        }
+    }
+
+    @Test
+    public void reopenKeepsEntries() throws Exception {
+        File dir = folder.newFolder();
+        try (MappedHashMap m = new MappedHashMap(dir, 4, 0.5)) {
+            for (int i = 0; i < 1000; i++) {
+                m.put(bytes("key" + i), bytes("value" + i));
+            }
+            m.remove(bytes("key7"));
+        }
+        try (MappedHashMap m = new MappedHashMap(dir)) {
+            assertEquals(999, m.size());
+            assertFalse(m.containsKey(bytes("key7")));
+            for (int i = 0; i < 1000; i++) {
+                if (i != 7) {
+                    assertEquals("value" + i, string(m.get(bytes("key" + i))));
+                }
+            }
+            Set<String> keys = new HashSet<>();
+            for (byte[] k : m) {
+                keys.add(string(k));
+            }
+            assertEquals(999, keys.size());
+            m.clear();
+            assertEquals(0, m.size());
+            assertNull(m.get(bytes("key1")));
+        }
+    }
+
+    @Test
+    public void keySetComparesByContent() throws Exception {
+        try (MappedHashMap m = new MappedHashMap(folder.newFolder())) {
+            for (int i = 0; i < 100; i++) {
+                m.put(bytes("key" + i), bytes("value" + i));
+            }
+            m.remove(bytes("key5"));
+            Set<byte[]> keys = m.keySet();
+            assertEquals(99, keys.size());
+            assertTrue(keys.contains(bytes("key42")));
+            assertFalse(keys.contains(bytes("key5")));
+        }
+    }
+
+    /** A resize that fails part way must leave the old index usable. */
+    @Test
+    public void failedResizeKeepsEntries() throws Exception {
+        File dir = folder.newFolder();
+        try (MappedHashMap m = new MappedHashMap(dir, 4, 0.5)) {
+            m.put(bytes("a"), bytes("1"));
+            /* A non-empty directory where the new index is built makes
+             * the next resize fail. */
+            File blocker = new File(dir, "index.tmp");
+            assertTrue(blocker.mkdir());
+            assertTrue(new File(blocker, "x").createNewFile());
+            try {
+                for (int i = 0; i < 10; i++) {
+                    m.put(bytes("key" + i), bytes("value" + i));
+                }
+                fail("expected the resize to fail");
+            } catch (UncheckedIOException expected) {
+                /* expected */
+            }
+            new File(blocker, "x").delete();
+            blocker.delete();
+        }
+        try (MappedHashMap m = new MappedHashMap(dir)) {
+            assertEquals("1", string(m.get(bytes("a"))));
+            assertEquals(m.size(), m.keySet().size());
+            m.put(bytes("b"), bytes("2"));
+            assertEquals("1", string(m.get(bytes("a"))));
+        }
+    }
+
+    @Test
+    public void randomizedAgainstHashMap() throws Exception {
+        Random r = new Random(61);
+        HashMap<String, String> expected = new HashMap<>();
+        try (MappedHashMap m = new MappedHashMap(folder.newFolder(), 2, 0.5)) {
+            for (int i = 0; i < 50000; i++) {
+                String key = "k" + r.nextInt(3000);
+                int op = r.nextInt(3);
+                if (op == 0) {
+                    m.put(bytes(key), bytes("v" + i));
+                    expected.put(key, "v" + i);
+                } else if (op == 1) {
+                    assertEquals(expected.remove(key), string(m.remove(bytes(key))));
+                } else {
+                    assertEquals(expected.get(key), string(m.get(bytes(key))));
+                }
+                assertEquals(expected.size(), m.size());
+            }
+        }
+    }
+}
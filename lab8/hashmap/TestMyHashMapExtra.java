@@ -3,6 +3,12 @@ package hashmap;
 import static org.junit.Assert.*;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
 /** Tests of optional parts of lab 8. */
 public class TestMyHashMapExtra {
 
@@ -49,4 +55,158 @@ public class TestMyHashMapExtra {
         assertTrue(q.containsKey("b"));
         assertTrue(q.containsKey("f"));
     }
+
+    /**
+     * Mixes puts, removes and lookups while the map keeps growing, so that
+     * many operations land in the middle of an incremental resize.
+     */
+    @Test
+    public void testOperationsDuringResize() {
+        Random r = new Random(61);
+        MyHashMap<Integer, Integer> q = new MyHashMap<>(1, 0.75);
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 50000; i++) {
+            int key = r.nextInt(20000);
+            int op = r.nextInt(4);
+            if (op <= 1) {
+                q.put(key, i);
+                expected.put(key, i);
+            } else if (op == 2) {
+                assertEquals(expected.remove(key), q.remove(key));
+            } else {
+                assertEquals(expected.get(key), q.get(key));
+            }
+            assertEquals(expected.size(), q.size());
+        }
+        assertEquals(expected.keySet(), q.keySet());
+    }
+
+    /**
+     * Looking keys up while iterating in the middle of a resize must not
+     * move buckets under the iterator, which would repeat or skip keys.
+     */
+    @Test
+    public void testGetWhileIteratingDuringResize() {
+        MyHashMap<Integer, Integer> q = new MyHashMap<>(16, 0.75);
+        for (int i = 0; i < 13; i++) {
+            q.put(i, i);
+        }
+        List<Integer> seen = new ArrayList<>();
+        for (int key : q) {
+            assertEquals(key, (int) q.get(key));
+            assertTrue(q.containsKey(key));
+            seen.add(key);
+        }
+        assertEquals(13, seen.size());
+        assertEquals(q.keySet(), new HashSet<>(seen));
+    }
+
+    /**
+     * However small the load factor, each resize must drain the old table
+     * before the next one is due, or that put() would rehash everything.
+     */
+    @Test
+    public void testResizeDrainsBeforeNextResize() {
+        Random r = new Random(61);
+        for (double maxLoad : new double[] {0.01, 0.05, 0.1, 0.125, 0.75, 4}) {
+            MyHashMap<Integer, Integer> q = new MyHashMap<>(1, maxLoad);
+            for (int i = 0; i < 20000; i++) {
+                if (r.nextInt(4) == 0) {
+                    q.remove(r.nextInt(i + 1));
+                } else {
+                    q.put(i, i);
+                }
+            }
+            assertTrue(q.stats().resizes() > 5);
+            assertEquals("maxLoad " + maxLoad, 0, q.forcedFinishes());
+        }
+    }
+
+    /**
+     * Keys that are all multiples of the table size collide completely
+     * under the identity spreader, but not once their hash is mixed.
+     */
+    @Test
+    public void testHashSpreaderStats() {
+        int n = 1000;
+        MyHashMap<Integer, Integer> identity = new MyHashMap<>(16, 100);
+        MyHashMap<Integer, Integer> murmur = new MyHashMap<>(16, 100, HashSpreader.MURMUR3);
+        for (int i = 0; i < n; i++) {
+            identity.put(i * 16, i);
+            murmur.put(i * 16, i);
+        }
+        for (int i = 0; i < n; i++) {
+            assertEquals(i, (int) identity.get(i * 16));
+            assertEquals(i, (int) murmur.get(i * 16));
+        }
+
+        HashMapStats slow = identity.stats();
+        HashMapStats fast = murmur.stats();
+        assertEquals(n, slow.maxChainLength());
+        assertEquals(15, slow.chainLengthHistogram()[0]);
+        assertTrue(fast.maxChainLength() < n / 4);
+        assertEquals(n, slow.entries());
+        assertEquals((n + 1) / 2.0, slow.expectedProbesPerLookup(), 1e-9);
+        assertTrue(slow.expectedProbesPerLookup() > fast.expectedProbesPerLookup() * 4);
+        assertEquals(0, slow.lookups());
+        assertEquals(0, slow.resizes());
+
+        int buckets = 0;
+        int entries = 0;
+        int[] histogram = fast.chainLengthHistogram();
+        for (int k = 0; k < histogram.length; k++) {
+            buckets += histogram[k];
+            entries += k * histogram[k];
+        }
+        assertEquals(16, buckets);
+        assertEquals(n, entries);
+    }
+
+    /**
+     * A hot key at the end of a long chain costs far more per lookup than
+     * the chain lengths alone predict; only measured probes show it.
+     */
+    @Test
+    public void testRecordedProbesShowHotKey() {
+        int n = 100;
+        MyHashMap<Integer, Integer> q = new MyHashMap<>(16, 100, HashSpreader.IDENTITY, true);
+        for (int i = 0; i < n; i++) {
+            q.put(i * 16, i);
+        }
+        int hot = (n - 1) * 16;
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(n - 1, (int) q.get(hot));
+        }
+        assertFalse(q.containsKey(1));
+        HashMapStats stats = q.stats();
+        assertEquals(1001, stats.lookups());
+        assertEquals(1000L * n, stats.probes());
+        assertEquals((n + 1) / 2.0, stats.expectedProbesPerLookup(), 1e-9);
+        assertTrue(stats.averageProbesPerLookup() > 1.9 * stats.expectedProbesPerLookup());
+        assertTrue(stats.toString().contains("over 1001 lookups"));
+
+        MyHashMapALBuckets<Integer, Integer> al =
+            new MyHashMapALBuckets<>(16, 100, HashSpreader.IDENTITY, true);
+        al.put(0, 0);
+        al.put(16, 1);
+        al.get(16);
+        assertEquals(2, al.stats().probes());
+    }
+
+    @Test
+    public void testResizeStats() {
+        MyHashMap<Integer, Integer> q = new MyHashMap<>(4, 0.75, HashSpreader.MURMUR3);
+        for (int i = 0; i < 1000; i++) {
+            q.put(i, i);
+        }
+        HashMapStats stats = q.stats();
+        assertTrue(stats.resizes() >= 8);
+        assertTrue(stats.resizeNanos() > 0);
+        int entries = 0;
+        int[] histogram = stats.chainLengthHistogram();
+        for (int k = 0; k < histogram.length; k++) {
+            entries += k * histogram[k];
+        }
+        assertEquals(1000, entries);
+    }
 }
@@ -0,0 +1,121 @@
+package hashmap;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/** Tests of the open-addressing hash map. */
+public class TestOpenAddressingHashMap {
+
+    @Test
+    public void sanityClearTest() {
+        OpenAddressingHashMap<String, Integer> b = new OpenAddressingHashMap<>();
+        for (int i = 0; i < 455; i++) {
+            b.put("hi" + i, 1);
+            assertTrue(null != b.get("hi" + i) && b.containsKey("hi" + i));
+        }
+        assertEquals(455, b.size());
+        b.clear();
+        assertEquals(0, b.size());
+        for (int i = 0; i < 455; i++) {
+            assertTrue(null == b.get("hi" + i) && !b.containsKey("hi" + i));
+        }
+    }
+
+    @Test
+    public void sanityKeySetTest() {
+        OpenAddressingHashMap<String, Integer> b = new OpenAddressingHashMap<>();
+        HashSet<String> values = new HashSet<String>();
+        for (int i = 0; i < 455; i++) {
+            b.put("hi" + i, 1);
+            values.add("hi" + i);
+        }
+        assertEquals(455, b.size());
+        Set<String> keySet = b.keySet();
+        assertTrue(values.containsAll(keySet));
+        assertTrue(keySet.containsAll(values));
+    }
+
+    @Test
+    public void testRemoveKeepsProbeChains() {
+        /* A capacity-16 table with many keys forces long probe runs, so
+         * removing from the middle of a run must not hide later keys. */
+        OpenAddressingHashMap<Integer, String> q = new OpenAddressingHashMap<>(16, 0.9);
+        for (int i = 0; i < 14; i++) {
+            q.put(i * 16, "v" + i);
+        }
+        assertEquals("v3", q.remove(3 * 16));
+        assertFalse(q.containsKey(3 * 16));
+        for (int i = 0; i < 14; i++) {
+            if (i != 3) {
+                assertEquals("v" + i, q.get(i * 16));
+            }
+        }
+        q.put(3 * 16, "again");
+        assertEquals("again", q.get(3 * 16));
+        assertEquals(14, q.size());
+    }
+
+    @Test
+    public void testUpdateAtThresholdDoesNotResize() {
+        OpenAddressingHashMap<Integer, String> q = new OpenAddressingHashMap<>(16, 0.75);
+        for (int i = 0; i < 12; i++) {
+            q.put(i, "v" + i);
+        }
+        assertEquals(16, q.capacity());
+        for (int i = 0; i < 12; i++) {
+            q.put(i, "w" + i);
+        }
+        assertEquals(16, q.capacity());
+        assertEquals(12, q.size());
+
+        /* Filling a tombstone does not add a used slot either. */
+        assertEquals("w5", q.remove(5));
+        q.put(5, "again");
+        assertEquals(16, q.capacity());
+        assertEquals("again", q.get(5));
+
+        q.put(12, "v12");
+        assertEquals(32, q.capacity());
+        for (int i = 0; i < 13; i++) {
+            assertTrue(q.containsKey(i));
+        }
+        assertEquals(13, q.size());
+    }
+
+    @Test
+    public void testRemoveWithValue() {
+        OpenAddressingHashMap<String, String> q = new OpenAddressingHashMap<>();
+        q.put("a", "x");
+        assertNull(q.remove("a", "y"));
+        assertTrue(q.containsKey("a"));
+        assertEquals("x", q.remove("a", "x"));
+        assertFalse(q.containsKey("a"));
+        assertEquals(0, q.size());
+    }
+
+    @Test
+    public void randomizedAgainstHashMap() {
+        Random r = new Random(61);
+        OpenAddressingHashMap<Integer, Integer> mine = new OpenAddressingHashMap<>();
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            int key = r.nextInt(2000);
+            int op = r.nextInt(3);
+            if (op == 0) {
+                mine.put(key, i);
+                expected.put(key, i);
+            } else if (op == 1) {
+                assertEquals(expected.remove(key), mine.remove(key));
+            } else {
+                assertEquals(expected.get(key), mine.get(key));
+            }
+            assertEquals(expected.size(), mine.size());
+        }
+        assertEquals(expected.keySet(), mine.keySet());
+    }
+}
@@ -0,0 +1,108 @@
+package hashmap;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+
+/** Tests of the primitive-keyed hash maps. */
+public class TestPrimitiveHashMaps {
+
+    @Test
+    public void intIntZeroAndNegativeKeys() {
+        IntIntHashMap m = new IntIntHashMap();
+        assertFalse(m.containsKey(0));
+        assertEquals(-1, m.getOrDefault(0, -1));
+        m.put(0, 7);
+        m.put(-5, 8);
+        assertTrue(m.containsKey(0));
+        assertEquals(7, m.getOrDefault(0, -1));
+        assertEquals(8, m.getOrDefault(-5, -1));
+        assertEquals(2, m.size());
+        assertTrue(m.remove(0));
+        assertFalse(m.remove(0));
+        assertEquals(1, m.size());
+        m.clear();
+        assertEquals(0, m.size());
+        assertFalse(m.containsKey(-5));
+    }
+
+    @Test
+    public void intIntRandomizedAgainstHashMap() {
+        Random r = new Random(61);
+        IntIntHashMap mine = new IntIntHashMap(2);
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200000; i++) {
+            int key = r.nextInt(4000) - 2000;
+            int op = r.nextInt(3);
+            if (op == 0) {
+                mine.put(key, i);
+                expected.put(key, i);
+            } else if (op == 1) {
+                assertEquals(expected.remove(key) != null, mine.remove(key));
+            } else {
+                assertEquals((int) expected.getOrDefault(key, -1), mine.getOrDefault(key, -1));
+            }
+            assertEquals(expected.size(), mine.size());
+        }
+        HashSet<Integer> keys = new HashSet<>();
+        for (int k : mine.keys()) {
+            keys.add(k);
+        }
+        assertEquals(expected.keySet(), keys);
+    }
+
+    @Test
+    public void intObjectRandomizedAgainstHashMap() {
+        Random r = new Random(62);
+        IntObjectHashMap<String> mine = new IntObjectHashMap<>();
+        HashMap<Integer, String> expected = new HashMap<>();
+        for (int i = 0; i < 200000; i++) {
+            int key = r.nextInt(4000) - 2000;
+            int op = r.nextInt(3);
+            if (op == 0) {
+                mine.put(key, "v" + i);
+                expected.put(key, "v" + i);
+            } else if (op == 1) {
+                assertEquals(expected.remove(key), mine.remove(key));
+            } else {
+                assertEquals(expected.get(key), mine.get(key));
+            }
+            assertEquals(expected.size(), mine.size());
+        }
+        assertEquals(expected.keySet(), mine.keySet());
+    }
+
+    @Test
+    public void longObjectRandomizedAgainstHashMap() {
+        Random r = new Random(63);
+        LongObjectHashMap<String> mine = new LongObjectHashMap<>();
+        HashMap<Long, String> expected = new HashMap<>();
+        for (int i = 0; i < 200000; i++) {
+            long key = (r.nextInt(4000) - 2000) * 0x100000001L;
+            int op = r.nextInt(3);
+            if (op == 0) {
+                mine.put(key, "v" + i);
+                expected.put(key, "v" + i);
+            } else if (op == 1) {
+                assertEquals(expected.remove(key), mine.remove(key));
+            } else {
+                assertEquals(expected.get(key), mine.get(key));
+            }
+            assertEquals(expected.size(), mine.size());
+        }
+        assertEquals(expected.keySet(), mine.keySet());
+    }
+
+    @Test
+    public void boxedMap61BMethods() {
+        Map61B<Integer, String> m = new IntObjectHashMap<>();
+        m.put(Integer.valueOf(3), "a");
+        assertTrue(m.containsKey(3));
+        assertNull(m.remove(3, "b"));
+        assertEquals("a", m.remove(3, "a"));
+        assertEquals(0, m.size());
+    }
+}
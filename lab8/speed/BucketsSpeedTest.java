@@ -6,6 +6,7 @@ import java.io.IOException;
 import java.util.Scanner;
 
 import hashmap.Map61B;
+import hashmap.MyHashMap;
 import hashmap.MyHashMapALBuckets;
 import hashmap.MyHashMapLLBuckets;
 import hashmap.MyHashMapTSBuckets;
@@ -72,6 +73,9 @@ public class BucketsSpeedTest {
         try {
             double mapTime = insertRandom(map, N, L);
             System.out.printf(map.getClass() + ": %.2f sec\n", mapTime);
+            if (map instanceof MyHashMap) {
+                System.out.print(((MyHashMap<String, Integer>) map).stats());
+            }
         } catch (StackOverflowError e) {
             printInfoOnStackOverflow(N, L);
         } catch (RuntimeException e) {
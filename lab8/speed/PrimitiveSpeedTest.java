@@ -0,0 +1,100 @@
+package speed;
+
+import java.util.HashMap;
+import java.io.IOException;
+import java.util.Random;
+import java.util.Scanner;
+import edu.princeton.cs.algs4.Stopwatch;
+
+import hashmap.IntIntHashMap;
+import hashmap.Map61B;
+import hashmap.MyHashMap;
+
+/**
+ * Performs a timing test of random int keys against the primitive-keyed
+ * IntIntHashMap, a boxed hashmap.MyHashMap and Java's HashMap.
+ */
+public class PrimitiveSpeedTest {
+    /** Seed shared by every run so that all maps see the same keys. */
+    private static final long SEED = 61;
+
+    /**
+     * Requests user input and performs tests of the three map
+     * implementations. ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException {
+        int N;
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("\n This program inserts random ints "
+                + "into different types of maps as <int, int> pairs.\n");
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter # ints to insert into each map: ");
+            N = InsertRandomSpeedTest.waitForPositiveInt(input);
+
+            System.out.printf("hashmap.IntIntHashMap: %.2f sec\n",
+                    insertRandom(new IntIntHashMap(), N));
+            System.out.printf("hashmap.MyHashMap: %.2f sec\n",
+                    insertRandom(new MyHashMap<Integer, Integer>(), N));
+            System.out.printf("Java's Built-in HashMap: %.2f sec\n",
+                    insertRandom(new HashMap<Integer, Integer>(), N));
+
+            System.out.print("\nWould you like to try more timed-tests? (y/n)");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /**
+     * Returns time needed to put and then get N random ints in the
+     * IntIntHashMap map.
+     */
+    public static double insertRandom(IntIntHashMap map, int N) {
+        Random r = new Random(SEED);
+        Stopwatch sw = new Stopwatch();
+        for (int i = 0; i < N; i++) {
+            map.put(r.nextInt(), i);
+        }
+        r.setSeed(SEED);
+        for (int i = 0; i < N; i++) {
+            map.getOrDefault(r.nextInt(), -1);
+        }
+        return sw.elapsedTime();
+    }
+
+    /**
+     * Returns time needed to put and then get N random ints in the
+     * hashmap.Map61B map61B.
+     */
+    public static double insertRandom(Map61B<Integer, Integer> map61B, int N) {
+        Random r = new Random(SEED);
+        Stopwatch sw = new Stopwatch();
+        for (int i = 0; i < N; i++) {
+            map61B.put(r.nextInt(), i);
+        }
+        r.setSeed(SEED);
+        for (int i = 0; i < N; i++) {
+            map61B.get(r.nextInt());
+        }
+        return sw.elapsedTime();
+    }
+
+    /**
+     * Returns time needed to put and then get N random ints in the
+     * HashMap hashMap.
+     */
+    public static double insertRandom(HashMap<Integer, Integer> hashMap, int N) {
+        Random r = new Random(SEED);
+        Stopwatch sw = new Stopwatch();
+        for (int i = 0; i < N; i++) {
+            hashMap.put(r.nextInt(), i);
+        }
+        r.setSeed(SEED);
+        for (int i = 0; i < N; i++) {
+            hashMap.get(r.nextInt());
+        }
+        return sw.elapsedTime();
+    }
+}
@@ -0,0 +1,59 @@
+package bench;
+
+import java.util.Map;
+
+/**
+ * The map operations timed by MapBenchmark. bstmap.Map61B, hashmap.Map61B
+ * and java.util.Map share no common supertype, so each is wrapped in one of
+ * these adapters.
+ */
+interface BenchMap {
+    void put(String key, Integer value);
+
+    Integer get(String key);
+
+    /** Wraps the lab 7 map M. */
+    static BenchMap of(bstmap.Map61B<String, Integer> m) {
+        return new BenchMap() {
+            @Override
+            public void put(String key, Integer value) {
+                m.put(key, value);
+            }
+
+            @Override
+            public Integer get(String key) {
+                return m.get(key);
+            }
+        };
+    }
+
+    /** Wraps the lab 8 map M. */
+    static BenchMap of(hashmap.Map61B<String, Integer> m) {
+        return new BenchMap() {
+            @Override
+            public void put(String key, Integer value) {
+                m.put(key, value);
+            }
+
+            @Override
+            public Integer get(String key) {
+                return m.get(key);
+            }
+        };
+    }
+
+    /** Wraps the java.util map M. */
+    static BenchMap of(Map<String, Integer> m) {
+        return new BenchMap() {
+            @Override
+            public void put(String key, Integer value) {
+                m.put(key, value);
+            }
+
+            @Override
+            public Integer get(String key) {
+                return m.get(key);
+            }
+        };
+    }
+}
@@ -0,0 +1,31 @@
+package bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs every benchmark in this module and writes the results as JSON, so
+ * that runs from different releases can be diffed.
+ *
+ * Usage: java -jar target/benchmarks.jar [JMH options]
+ *
+ * Results go to mapbench-results.json unless overridden with -rff FILE.
+ * Any other JMH option, e.g. -p N=1000000 or -p impl=MyHashMap,HashMap,
+ * narrows or widens the parameter space.
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        ChainedOptionsBuilder opts = new OptionsBuilder()
+                .parent(cmd)
+                .resultFormat(cmd.getResultFormat().orElse(ResultFormatType.JSON))
+                .result(cmd.getResult().orElse("mapbench-results.json"));
+        if (cmd.getIncludes().isEmpty()) {
+            opts.include(BenchmarkRunner.class.getPackageName() + "\\.");
+        }
+        new Runner(opts.build()).run();
+    }
+}
@@ -0,0 +1,137 @@
+package bench;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import bstmap.BSTMap;
+import bstmap.BTreeMap;
+import hashmap.MyHashMap;
+import hashmap.MyHashMapALBuckets;
+import hashmap.MyHashMapHSBuckets;
+import hashmap.MyHashMapLLBuckets;
+import hashmap.MyHashMapPQBuckets;
+import hashmap.MyHashMapTSBuckets;
+import hashmap.ULLMap;
+import speed.StringUtils;
+
+/**
+ * JMH replacement for the interactive InsertRandomSpeedTest,
+ * InsertInOrderSpeedTest and BucketsSpeedTest programs. Every benchmark
+ * reports the time for N operations on <String, Integer> pairs whose keys
+ * have length L.
+ *
+ * ULLMap is quadratic and recursive, so large N will overflow the stack
+ * for it; JMH reports that combination as failed and moves on.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapBenchmark {
+    /** Seed for the random key distribution, fixed for reproducible runs. */
+    private static final long SEED = 61;
+
+    @Param({"ULLMap", "BSTMap", "BTreeMap", "MyHashMap", "MyHashMapALBuckets",
+            "MyHashMapLLBuckets", "MyHashMapTSBuckets", "MyHashMapHSBuckets",
+            "MyHashMapPQBuckets", "HashMap"})
+    public String impl;
+
+    /** "random" keys as in InsertRandomSpeedTest, or "inorder" keys as in
+     *  InsertInOrderSpeedTest. */
+    @Param({"random", "inorder"})
+    public String distribution;
+
+    @Param({"10"})
+    public int L;
+
+    @Param({"1000", "100000"})
+    public int N;
+
+    private String[] keys;
+    /** A map already holding every key, used by the lookup benchmark. */
+    private BenchMap filled;
+
+    @Setup
+    public void setup() {
+        keys = new String[N];
+        if (distribution.equals("random")) {
+            StringUtils.setSeed(SEED);
+            for (int i = 0; i < N; i++) {
+                keys[i] = StringUtils.randomString(L);
+            }
+        } else if (distribution.equals("inorder")) {
+            String s = "a".repeat(L);
+            for (int i = 0; i < N; i++) {
+                keys[i] = s;
+                s = StringUtils.nextString(s);
+            }
+        } else {
+            throw new IllegalArgumentException("unknown distribution " + distribution);
+        }
+        filled = createMap(impl);
+        for (int i = 0; i < N; i++) {
+            filled.put(keys[i], i);
+        }
+    }
+
+    /** Returns a new, empty map of the implementation named NAME. */
+    static BenchMap createMap(String name) {
+        switch (name) {
+            case "ULLMap":
+                return BenchMap.of(new ULLMap<String, Integer>());
+            case "BSTMap":
+                return BenchMap.of(new BSTMap<String, Integer>());
+            case "BTreeMap":
+                return BenchMap.of(new BTreeMap<String, Integer>());
+            case "MyHashMap":
+                return BenchMap.of(new MyHashMap<String, Integer>());
+            case "MyHashMapALBuckets":
+                return BenchMap.of(new MyHashMapALBuckets<String, Integer>());
+            case "MyHashMapLLBuckets":
+                return BenchMap.of(new MyHashMapLLBuckets<String, Integer>());
+            case "MyHashMapTSBuckets":
+                return BenchMap.of(new MyHashMapTSBuckets<String, Integer>());
+            case "MyHashMapHSBuckets":
+                return BenchMap.of(new MyHashMapHSBuckets<String, Integer>());
+            case "MyHashMapPQBuckets":
+                return BenchMap.of(new MyHashMapPQBuckets<String, Integer>());
+            case "HashMap":
+                return BenchMap.of(new HashMap<String, Integer>());
+            default:
+                throw new IllegalArgumentException("unknown map " + name);
+        }
+    }
+
+    /** Inserts all N keys into a fresh map. */
+    @Benchmark
+    public BenchMap insert() {
+        BenchMap map = createMap(impl);
+        for (int i = 0; i < N; i++) {
+            map.put(keys[i], i);
+        }
+        return map;
+    }
+
+    /** Looks up all N keys in a map that already holds them. */
+    @Benchmark
+    public void get(Blackhole bh) {
+        for (int i = 0; i < N; i++) {
+            bh.consume(filled.get(keys[i]));
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package deque;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A skeleton for single-threaded deques whose get(i) takes constant time.
+ * It supplies an iterator and a spliterator that walk the deque by index,
+ * so stepping allocates nothing, and the spliterator can split any range
+ * exactly in half, which lets parallel streams divide the work evenly.
+ *
+ * Subclasses must increment modCount whenever they add or remove an item.
+ * Iterators and spliterators then throw ConcurrentModificationException
+ * if the deque is changed while they are in use, rather than returning
+ * wrong items.
+ */
+public abstract class AbstractIndexedDeque<T> implements Deque<T> {
+
+    /** The number of times items have been added or removed. */
+    protected int modCount;
+
+    @Override
+    public Iterator<T> iterator() {
+        return new IndexIterator();
+    }
+
+    /**
+     * Returns a spliterator over the items with the SIZED, SUBSIZED and
+     * ORDERED characteristics. It binds to the deque's size on first use.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new IndexSpliterator(0, -1, 0);
+    }
+
+    private class IndexIterator implements Iterator<T> {
+        private int cursor;
+        private final int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return cursor < size();
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (cursor >= size()) {
+                throw new NoSuchElementException();
+            }
+            T item = get(cursor);
+            cursor += 1;
+            return item;
+        }
+    }
+
+    private class IndexSpliterator implements Spliterator<T> {
+        private int index;
+        /** One past the last index, or -1 until first use. */
+        private int fence;
+        private int expectedModCount;
+
+        IndexSpliterator(int origin, int fence, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() {
+            if (fence < 0) {
+                fence = size();
+                expectedModCount = modCount;
+            }
+            return fence;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int hi = getFence();
+            int mid = (index + hi) >>> 1;
+            if (index >= mid) {
+                return null;
+            }
+            IndexSpliterator prefix = new IndexSpliterator(index, mid, expectedModCount);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (action == null) {
+                throw new NullPointerException();
+            }
+            int hi = getFence();
+            if (index >= hi) {
+                return false;
+            }
+            T item = get(index);
+            index += 1;
+            action.accept(item);
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            if (action == null) {
+                throw new NullPointerException();
+            }
+            int hi = getFence();
+            for (; index < hi; index++) {
+                action.accept(get(index));
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return getFence() - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return SIZED | SUBSIZED | ORDERED;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package deque;
+
+/**
+ * A deque stored in fixed-size chunks of CHUNK_SIZE items, held in a
+ * circular directory of chunk references. Chunks are allocated and
+ * released one at a time as the deque grows and shrinks at either end, so
+ * no operation ever copies the items themselves. The only copying is of
+ * the directory, which is CHUNK_SIZE times smaller than the deque.
+ *
+ * Item i lives at offset (head + i) of the run of chunks starting at
+ * firstChunk, so get(i) is two array reads with shifts and masks.
+ *
+ * One emptied chunk is kept as a spare, so a deque that keeps crossing a
+ * chunk boundary does not allocate a new chunk every time.
+ *
+ * Iteration and streams come from AbstractIndexedDeque.
+ */
+public class ChunkedArrayDeque<T> extends AbstractIndexedDeque<T> {
+
+    private static final int CHUNK_SHIFT = 8;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int MIN_DIRECTORY = 8;
+
+    /* Instance Variables */
+    /** Circular array of chunks; its length is a power of two. */
+    private Object[][] directory;
+    private int directoryMask;
+    /** Directory index of the chunk holding the first item. */
+    private int firstChunk;
+    /** Number of chunks in use, stored from firstChunk on. */
+    private int chunkCount;
+    /** Offset of the first item within the first chunk. */
+    private int head;
+    private int size;
+    /** An emptied chunk kept for reuse, or null. */
+    private Object[] spare;
+
+    /** Constructors */
+    public ChunkedArrayDeque() {
+        directory = new Object[MIN_DIRECTORY][];
+        directoryMask = MIN_DIRECTORY - 1;
+    }
+
+    /** Returns the chunk at position c of the run of chunks in use. */
+    private Object[] chunk(int c) {
+        return directory[(firstChunk + c) & directoryMask];
+    }
+
+    private Object[] newChunk() {
+        Object[] c = spare;
+        if (c == null) {
+            return new Object[CHUNK_SIZE];
+        }
+        spare = null;
+        return c;
+    }
+
+    /* ------------------------------- Adding ------------------------------- */
+
+    @Override
+    public void addFirst(T item) {
+        if (head == 0) {
+            if (chunkCount == directory.length) {
+                resizeDirectory(directory.length * 2);
+            }
+            firstChunk = (firstChunk - 1) & directoryMask;
+            directory[firstChunk] = newChunk();
+            chunkCount += 1;
+            head = CHUNK_SIZE;
+        }
+        head -= 1;
+        directory[firstChunk][head] = item;
+        size += 1;
+        modCount += 1;
+    }
+
+    @Override
+    public void addLast(T item) {
+        int p = head + size;
+        int c = p >>> CHUNK_SHIFT;
+        if (c == chunkCount) {
+            if (chunkCount == directory.length) {
+                resizeDirectory(directory.length * 2);
+            }
+            directory[(firstChunk + c) & directoryMask] = newChunk();
+            chunkCount += 1;
+        }
+        chunk(c)[p & CHUNK_MASK] = item;
+        size += 1;
+        modCount += 1;
+    }
+
+    /* ------------------------------- Removing ------------------------------- */
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T removeFirst() {
+        if (size == 0) {
+            return null;
+        }
+        Object[] first = directory[firstChunk];
+        T item = (T) first[head];
+        first[head] = null;
+        head += 1;
+        size -= 1;
+        modCount += 1;
+        if (size == 0) {
+            releaseAll();
+        } else if (head == CHUNK_SIZE) {
+            directory[firstChunk] = null;
+            spare = first;
+            firstChunk = (firstChunk + 1) & directoryMask;
+            chunkCount -= 1;
+            head = 0;
+            maybeShrinkDirectory();
+        }
+        return item;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T removeLast() {
+        if (size == 0) {
+            return null;
+        }
+        size -= 1;
+        modCount += 1;
+        int p = head + size;
+        int c = p >>> CHUNK_SHIFT;
+        Object[] last = chunk(c);
+        T item = (T) last[p & CHUNK_MASK];
+        last[p & CHUNK_MASK] = null;
+        if (size == 0) {
+            releaseAll();
+        } else if ((p & CHUNK_MASK) == 0) {
+            directory[(firstChunk + c) & directoryMask] = null;
+            spare = last;
+            chunkCount -= 1;
+            maybeShrinkDirectory();
+        }
+        return item;
+    }
+
+    /** Drops every chunk once the deque is empty, keeping one as the spare. */
+    private void releaseAll() {
+        for (int c = 0; c < chunkCount; c++) {
+            spare = chunk(c);
+            directory[(firstChunk + c) & directoryMask] = null;
+        }
+        chunkCount = 0;
+        firstChunk = 0;
+        head = 0;
+        maybeShrinkDirectory();
+    }
+
+    /* ------------------------------- Directory ------------------------------- */
+
+    /** Halves the directory once it is less than a quarter full. */
+    private void maybeShrinkDirectory() {
+        if (directory.length > MIN_DIRECTORY && chunkCount < directory.length / 4) {
+            resizeDirectory(directory.length / 2);
+        }
+    }
+
+    /** Moves the chunks in use to the front of a directory of length n. */
+    private void resizeDirectory(int n) {
+        Object[][] d = new Object[n][];
+        for (int c = 0; c < chunkCount; c++) {
+            d[c] = chunk(c);
+        }
+        directory = d;
+        directoryMask = n - 1;
+        firstChunk = 0;
+    }
+
+    /* ------------------------------- Access ------------------------------- */
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        int p = head + index;
+        return (T) chunk(p >>> CHUNK_SHIFT)[p & CHUNK_MASK];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void printDeque() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(get(i));
+        }
+        System.out.println(sb);
+    }
+}
@@ -0,0 +1,115 @@
+package deque;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Spliterator;
+import java.util.ConcurrentModificationException;
+import java.util.ArrayList;
+import java.util.Random;
+
+/** Tests the ChunkedArrayDeque class. */
+public class ChunkedArrayDequeTest {
+
+    @Test
+    /* Random operations at both ends, checked against an ArrayList. Long
+     * runs of one operation make the deque grow and shrink by many chunks. */
+    public void randomizedTest() {
+        ChunkedArrayDeque<Integer> d = new ChunkedArrayDeque<>();
+        ArrayList<Integer> expected = new ArrayList<>();
+        Random r = new Random(61);
+        for (int run = 0; run < 400; run++) {
+            int op = r.nextInt(5);
+            int length = r.nextInt(2000);
+            for (int i = 0; i < length; i++) {
+                int x = r.nextInt();
+                if (op == 0) {
+                    d.addFirst(x);
+                    expected.add(0, x);
+                } else if (op == 1) {
+                    d.addLast(x);
+                    expected.add(x);
+                } else if (op == 2) {
+                    assertEquals(expected.isEmpty() ? null : expected.remove(0), d.removeFirst());
+                } else if (op == 3) {
+                    Integer last = expected.isEmpty() ? null : expected.remove(expected.size() - 1);
+                    assertEquals(last, d.removeLast());
+                } else if (!expected.isEmpty()) {
+                    int index = r.nextInt(expected.size());
+                    assertEquals(expected.get(index), d.get(index));
+                }
+            }
+            assertEquals(expected.size(), d.size());
+        }
+    }
+
+    @Test
+    public void getOutOfRangeTest() {
+        ChunkedArrayDeque<String> d = new ChunkedArrayDeque<>();
+        assertNull(d.get(0));
+        d.addLast("a");
+        d.addFirst("b");
+        assertEquals("b", d.get(0));
+        assertEquals("a", d.get(1));
+        assertNull(d.get(2));
+        assertNull(d.get(-1));
+    }
+
+    @Test
+    /* Fills and drains a million items from each end. */
+    public void bigDequeTest() {
+        ChunkedArrayDeque<Integer> d = new ChunkedArrayDeque<>();
+        for (int i = 0; i < 1000000; i++) {
+            d.addLast(i);
+        }
+        assertEquals(500000, (int) d.get(500000));
+        for (int i = 0; i < 1000000; i++) {
+            assertEquals(i, (int) d.removeFirst());
+        }
+        assertTrue(d.isEmpty());
+        for (int i = 0; i < 1000000; i++) {
+            d.addFirst(i);
+        }
+        for (int i = 0; i < 1000000; i++) {
+            assertEquals(999999 - i, (int) d.removeFirst());
+        }
+        assertNull(d.removeLast());
+    }
+
+    @Test
+    public void iterationAndStreamTest() {
+        ChunkedArrayDeque<Integer> d = new ChunkedArrayDeque<>();
+        for (int i = 0; i < 100000; i++) {
+            d.addLast(i);
+        }
+        d.addFirst(-1);
+        int expected = -1;
+        for (int x : d) {
+            assertEquals(expected, x);
+            expected += 1;
+        }
+        long sum = d.stream().parallel().mapToLong(x -> x).sum();
+        assertEquals(100000L * 99999 / 2 - 1, sum);
+        assertEquals(d.size(), d.stream().parallel().filter(x -> x >= -1).count());
+
+        Spliterator<Integer> s = d.spliterator();
+        assertTrue(s.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        Spliterator<Integer> prefix = s.trySplit();
+        assertEquals(50000, prefix.estimateSize());
+        assertEquals(50001, s.estimateSize());
+        assertTrue(prefix.tryAdvance(x -> assertEquals(-1, (int) x)));
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void failFastIteratorTest() {
+        ChunkedArrayDeque<Integer> d = new ChunkedArrayDeque<>();
+        for (int i = 0; i < 10; i++) {
+            d.addLast(i);
+        }
+        for (int x : d) {
+            if (x == 5) {
+                d.removeLast();
+            }
+        }
+    }
+}
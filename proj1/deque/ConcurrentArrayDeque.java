@@ -0,0 +1,334 @@
+package deque;
+
+import java.lang.invoke.VarHandle;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded, lock-free deque for many producer and many consumer threads,
+ * meant to be used as a FIFO work queue: producers call addLast or
+ * offerLast, consumers call removeFirst or drainTo.
+ *
+ * The items live in a power-of-two ring buffer. Every slot carries a
+ * sequence number that tells whether it is ready to be written for a given
+ * position of the tail, or ready to be read for a given position of the
+ * head. A thread claims a position with one compareAndSet on the head or
+ * tail counter and then publishes the slot by advancing its sequence, so
+ * threads never block one another and contend only on the counter they
+ * share.
+ *
+ * addFirst and removeLast are not supported, since they would need a
+ * second claim protocol at each end. size, get and printDeque are only
+ * exact while no other thread is modifying the deque.
+ *
+ * Iterators are weakly consistent: they never throw
+ * ConcurrentModificationException, and they return items in order,
+ * skipping any that are removed before the iterator reaches them. For
+ * the same reason the spliterator is CONCURRENT rather than SIZED.
+ *
+ * Null items are not allowed, because null is what removeFirst returns
+ * when the deque is empty.
+ */
+public class ConcurrentArrayDeque<T> implements Deque<T> {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * An AtomicLong followed by a cache line of padding, so that the head
+     * and tail counters, which are written by different threads, do not
+     * share a cache line.
+     */
+    @SuppressWarnings("unused")
+    private static class PaddedAtomicLong extends AtomicLong {
+        private static final long serialVersionUID = 1L;
+
+        long p1, p2, p3, p4, p5, p6, p7;
+
+        PaddedAtomicLong(long initial) {
+            super(initial);
+        }
+    }
+
+    /* Instance Variables */
+    private final Object[] items;
+    /**
+     * For slot i: equal to pos when the slot is free for the producer that
+     * claims tail position pos, and to pos + 1 once that producer's item
+     * is ready for the consumer that claims head position pos.
+     */
+    private final AtomicLongArray sequences;
+    private final int mask;
+    /** The next position to remove from. */
+    private final AtomicLong head = new PaddedAtomicLong(0);
+    /** The next position to add at. */
+    private final AtomicLong tail = new PaddedAtomicLong(0);
+
+    /** Constructors */
+    public ConcurrentArrayDeque() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a deque that holds at least capacity items. The capacity is
+     * rounded up to a power of two.
+     *
+     * @param capacity minimum number of items the deque can hold
+     */
+    public ConcurrentArrayDeque(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity out of range: " + capacity);
+        }
+        int n = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+        items = new Object[n];
+        sequences = new AtomicLongArray(n);
+        for (int i = 0; i < n; i++) {
+            sequences.set(i, i);
+        }
+        mask = n - 1;
+    }
+
+    /** Returns the number of items the deque can hold. */
+    public int capacity() {
+        return items.length;
+    }
+
+    /* ------------------------------- Producers ------------------------------- */
+
+    /**
+     * Adds item to the back of the deque if there is room. Returns false,
+     * leaving the deque unchanged, if it is full.
+     */
+    public boolean offerLast(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException("null items are not allowed");
+        }
+        long pos = tail.get();
+        while (true) {
+            int i = (int) pos & mask;
+            long diff = sequences.get(i) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    items[i] = item;
+                    /* The volatile write publishes the item to consumers. */
+                    sequences.set(i, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                /* The slot still holds the item from one lap ago. */
+                return false;
+            } else {
+                /* Another producer claimed pos first. */
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Adds item to the back of the deque. Throws IllegalStateException if
+     * the deque is full.
+     */
+    @Override
+    public void addLast(T item) {
+        if (!offerLast(item)) {
+            throw new IllegalStateException("deque is full");
+        }
+    }
+
+    @Override
+    public void addFirst(T item) {
+        throw new UnsupportedOperationException();
+    }
+
+    /* ------------------------------- Consumers ------------------------------- */
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T removeFirst() {
+        long pos = head.get();
+        while (true) {
+            int i = (int) pos & mask;
+            long diff = sequences.get(i) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    T item = (T) items[i];
+                    items[i] = null;
+                    /* Hand the slot to the producer one lap ahead. */
+                    sequences.set(i, pos + items.length);
+                    return item;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                /* Nothing has been published at pos yet. */
+                return null;
+            } else {
+                /* Another consumer claimed pos first. */
+                pos = head.get();
+            }
+        }
+    }
+
+    @Override
+    public T removeLast() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Removes every available item and adds them, in order, to target.
+     * Returns the number of items moved.
+     */
+    public int drainTo(Collection<? super T> target) {
+        return drainTo(target, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Removes up to maxItems available items and adds them, in order, to
+     * target. The whole batch is claimed with a single compareAndSet on the
+     * head, so draining costs one contended operation rather than one per
+     * item. Returns the number of items moved.
+     */
+    @SuppressWarnings("unchecked")
+    public int drainTo(Collection<? super T> target, int maxItems) {
+        if (target == null || maxItems < 0) {
+            throw new IllegalArgumentException();
+        }
+        int limit = Math.min(maxItems, items.length);
+        while (true) {
+            long pos = head.get();
+            int n = 0;
+            while (n < limit && sequences.get((int) (pos + n) & mask) == pos + n + 1) {
+                n += 1;
+            }
+            if (n == 0) {
+                return 0;
+            }
+            /* A published slot stays published until the consumer that
+             * claims it frees it, so after the CAS all n slots are ours. */
+            if (head.compareAndSet(pos, pos + n)) {
+                for (int k = 0; k < n; k++) {
+                    int i = (int) (pos + k) & mask;
+                    T item = (T) items[i];
+                    items[i] = null;
+                    sequences.set(i, pos + k + items.length);
+                    target.add(item);
+                }
+                return n;
+            }
+        }
+    }
+
+    /* ------------------------------- Inspection ------------------------------- */
+
+    @Override
+    public int size() {
+        while (true) {
+            long h = head.get();
+            long t = tail.get();
+            if (head.get() == h) {
+                /* Claimed but unpublished positions count as present. */
+                return (int) Math.max(0, Math.min(t - h, items.length));
+            }
+        }
+    }
+
+    /**
+     * Returns the item at the given index, or null if there is none or it
+     * has not been published yet.
+     */
+    @Override
+    public T get(int index) {
+        if (index < 0) {
+            return null;
+        }
+        long pos = head.get() + index;
+        if (pos >= tail.get()) {
+            return null;
+        }
+        return peek(pos);
+    }
+
+    /**
+     * Returns the item published at position pos, or null if the slot does
+     * not hold it, without removing it. The slot's sequence is checked both
+     * before and after the plain read of the item, as in a seqlock: the
+     * first check makes the read see the producer's write of pos, and the
+     * acquire fence keeps the second check from being reordered above the
+     * read, so an item written by a producer on a later lap is rejected
+     * rather than returned at the wrong position.
+     */
+    @SuppressWarnings("unchecked")
+    private T peek(long pos) {
+        int i = (int) pos & mask;
+        if (sequences.get(i) != pos + 1) {
+            return null;
+        }
+        Object item = items[i];
+        VarHandle.acquireFence();
+        return sequences.get(i) == pos + 1 ? (T) item : null;
+    }
+
+    @Override
+    public void printDeque() {
+        StringBuilder sb = new StringBuilder();
+        int n = size();
+        for (int i = 0; i < n; i++) {
+            T item = get(i);
+            if (item != null) {
+                sb.append(item).append(' ');
+            }
+        }
+        System.out.println(sb.toString().trim());
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new WeakIterator();
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliteratorUnknownSize(iterator(),
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.CONCURRENT);
+    }
+
+    /**
+     * Walks the positions between the head and the tail as they were when
+     * it was created, returning each item still published at its position.
+     */
+    private class WeakIterator implements Iterator<T> {
+        private long pos = head.get();
+        private final long end = tail.get();
+        /** The item hasNext() found, not yet returned by next(). */
+        private T next;
+
+        /** Sets next to the first item still present at or after pos. */
+        private void advance() {
+            for (; pos < end && next == null; pos++) {
+                next = peek(pos);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                advance();
+            }
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T item = next;
+            next = null;
+            return item;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package deque;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/** Tests the ConcurrentArrayDeque class. */
+public class ConcurrentArrayDequeTest {
+
+    @Test
+    /* Items come out in the order they went in, and a full deque rejects offers. */
+    public void fifoAndBoundsTest() {
+        ConcurrentArrayDeque<Integer> q = new ConcurrentArrayDeque<>(5);
+        assertEquals(8, q.capacity());
+        assertTrue(q.isEmpty());
+        assertNull(q.removeFirst());
+
+        for (int i = 0; i < 8; i++) {
+            assertTrue(q.offerLast(i));
+        }
+        assertFalse("a full deque should reject offerLast", q.offerLast(8));
+        assertEquals(8, q.size());
+        assertEquals(0, (int) q.get(0));
+        assertEquals(7, (int) q.get(7));
+        assertNull(q.get(8));
+
+        for (int lap = 0; lap < 3; lap++) {
+            for (int i = 0; i < 8; i++) {
+                assertEquals(lap * 8 + i, (int) q.removeFirst());
+                q.addLast(lap * 8 + i + 8);
+            }
+        }
+        assertEquals(8, q.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addLastWhenFullTest() {
+        ConcurrentArrayDeque<String> q = new ConcurrentArrayDeque<>(2);
+        q.addLast("a");
+        q.addLast("b");
+        q.addLast("c");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void addFirstUnsupportedTest() {
+        new ConcurrentArrayDeque<String>().addFirst("a");
+    }
+
+    @Test
+    public void drainToTest() {
+        ConcurrentArrayDeque<Integer> q = new ConcurrentArrayDeque<>(16);
+        for (int i = 0; i < 10; i++) {
+            q.addLast(i);
+        }
+        List<Integer> out = new ArrayList<>();
+        assertEquals(4, q.drainTo(out, 4));
+        assertEquals(6, q.drainTo(out));
+        assertEquals(0, q.drainTo(out));
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, (int) out.get(i));
+        }
+        assertTrue(q.isEmpty());
+        assertTrue(q.offerLast(10));
+        assertEquals(10, (int) q.removeFirst());
+    }
+
+    @Test
+    /* Several producers and consumers share a small deque. Every item must be
+     * received exactly once, and each producer's items in the order sent. */
+    public void concurrentProducersConsumersTest() throws InterruptedException {
+        int producers = 4;
+        int consumers = 4;
+        int perProducer = 50000;
+        ConcurrentArrayDeque<Integer> q = new ConcurrentArrayDeque<>(64);
+        AtomicInteger[] seen = new AtomicInteger[producers * perProducer];
+        for (int i = 0; i < seen.length; i++) {
+            seen[i] = new AtomicInteger();
+        }
+        AtomicInteger received = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!q.offerLast(base + i)) {
+                        Thread.yield();
+                    }
+                }
+            }));
+        }
+        for (int c = 0; c < consumers; c++) {
+            boolean batched = c % 2 == 0;
+            threads.add(new Thread(() -> {
+                int[] last = new int[producers];
+                Arrays.fill(last, -1);
+                List<Integer> batch = new ArrayList<>();
+                try {
+                    while (received.get() < seen.length) {
+                        batch.clear();
+                        if (batched) {
+                            q.drainTo(batch, 16);
+                        } else {
+                            Integer x = q.removeFirst();
+                            if (x != null) {
+                                batch.add(x);
+                            }
+                        }
+                        if (batch.isEmpty()) {
+                            Thread.yield();
+                        }
+                        for (int x : batch) {
+                            int p = x / perProducer;
+                            if (x <= last[p]) {
+                                throw new AssertionError("out of order: " + x + " after " + last[p]);
+                            }
+                            last[p] = x;
+                            seen[x].incrementAndGet();
+                        }
+                        received.addAndGet(batch.size());
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                    received.set(seen.length);
+                }
+            }));
+        }
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        for (int i = 0; i < seen.length; i++) {
+            assertEquals("item " + i, 1, seen[i].get());
+        }
+        assertTrue(q.isEmpty());
+    }
+
+    @Test
+    /* Iterators and get run while one producer and one consumer lap a tiny
+     * deque. An item read from a slot that was reused mid-read must be
+     * rejected, so every iterator sees strictly increasing items and get(0)
+     * never returns an item that was already behind the head. */
+    public void iteratorDuringLapsTest() throws InterruptedException {
+        int total = 200000;
+        ConcurrentArrayDeque<Integer> q = new ConcurrentArrayDeque<>(4);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicInteger removed = new AtomicInteger();
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < total; i++) {
+                while (!q.offerLast(i)) {
+                    Thread.yield();
+                }
+            }
+        });
+        Thread consumer = new Thread(() -> {
+            while (removed.get() < total) {
+                if (q.removeFirst() != null) {
+                    removed.incrementAndGet();
+                } else {
+                    Thread.yield();
+                }
+            }
+        });
+        Thread reader = new Thread(() -> {
+            try {
+                while (removed.get() < total) {
+                    int last = -1;
+                    for (int x : q) {
+                        if (x <= last) {
+                            throw new AssertionError("out of order: " + x + " after " + last);
+                        }
+                        last = x;
+                    }
+                    int floor = removed.get();
+                    Integer first = q.get(0);
+                    if (first != null && first < floor - 1) {
+                        throw new AssertionError("stale item " + first + " at head " + floor);
+                    }
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+        });
+        producer.start();
+        consumer.start();
+        reader.start();
+        producer.join();
+        consumer.join();
+        reader.join();
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertTrue(q.isEmpty());
+    }
+
+    @Test
+    public void weaklyConsistentIteratorTest() {
+        ConcurrentArrayDeque<Integer> q = new ConcurrentArrayDeque<>(16);
+        for (int i = 0; i < 10; i++) {
+            q.addLast(i);
+        }
+        Iterator<Integer> it = q.iterator();
+        assertEquals(0, (int) it.next());
+        q.removeFirst();
+        q.removeFirst();
+        q.addLast(10);
+        /* 1 was removed before the iterator reached it; 10 came after it started. */
+        int expected = 2;
+        while (it.hasNext()) {
+            assertEquals(expected, (int) it.next());
+            expected += 1;
+        }
+        assertEquals(10, expected);
+        assertEquals(2 + 3 + 4 + 5 + 6 + 7 + 8 + 9 + 10, q.stream().mapToInt(x -> x).sum());
+    }
+}
@@ -0,0 +1,43 @@
+package deque;
+
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A double-ended queue. Items can be added and removed at both ends, and
+ * read by position with get(), where index 0 is the front. Iteration goes
+ * from front to back.
+ */
+public interface Deque<T> extends Iterable<T> {
+    /** Adds an item to the front of the deque. */
+    void addFirst(T item);
+
+    /** Adds an item to the back of the deque. */
+    void addLast(T item);
+
+    /** Returns true if the deque contains no items. */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /** Returns the number of items in the deque. */
+    int size();
+
+    /** Prints the items from first to last, separated by spaces, then a newline. */
+    void printDeque();
+
+    /** Removes and returns the item at the front, or null if there is none. */
+    T removeFirst();
+
+    /** Removes and returns the item at the back, or null if there is none. */
+    T removeLast();
+
+    /** Returns the item at the given index, or null if there is none. */
+    T get(int index);
+
+    /** Returns a sequential stream over the items, front to back. Call
+     *  parallel() on it to split the work by the deque's spliterator. */
+    default Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+}
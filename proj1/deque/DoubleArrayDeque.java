@@ -0,0 +1,320 @@
+package deque;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A deque of primitive doubles backed by a circular array. Unlike a
+ * Deque&lt;Double&gt;, adding and removing never boxes, so a steady stream
+ * of removeFirst/addLast pairs, as in a ring buffer, allocates nothing.
+ *
+ * The array length is always a power of two, so wrapping an index around
+ * is a single bitwise and with mask rather than a modulo. The array
+ * doubles when full and is never shrunk.
+ *
+ * iterator(), spliterator() and stream() work on primitive doubles too.
+ * They are fail-fast: adding or removing items while one is in use makes
+ * it throw ConcurrentModificationException. set() is not a modification.
+ */
+public class DoubleArrayDeque {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    /* Instance Variables */
+    private double[] items;
+    private int mask;
+    /** Index of the first item. */
+    private int head;
+    private int size;
+    /** The number of times items have been added or removed. */
+    private int modCount;
+
+    /** Constructors */
+    public DoubleArrayDeque() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty deque that can hold capacity items before growing.
+     *
+     * @param capacity initial number of items the deque can hold
+     */
+    public DoubleArrayDeque(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity out of range: " + capacity);
+        }
+        int n = 1;
+        while (n < capacity) {
+            n <<= 1;
+        }
+        items = new double[n];
+        mask = items.length - 1;
+    }
+
+    /** Adds x to the front of the deque. */
+    public void addFirst(double x) {
+        if (size == items.length) {
+            resize(items.length * 2);
+        }
+        head = (head - 1) & mask;
+        items[head] = x;
+        size += 1;
+        modCount += 1;
+    }
+
+    /** Adds x to the back of the deque. */
+    public void addLast(double x) {
+        if (size == items.length) {
+            resize(items.length * 2);
+        }
+        items[(head + size) & mask] = x;
+        size += 1;
+        modCount += 1;
+    }
+
+    /** Removes and returns the item at the front. */
+    public double removeFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        double x = items[head];
+        head = (head + 1) & mask;
+        size -= 1;
+        modCount += 1;
+        return x;
+    }
+
+    /** Removes and returns the item at the back. */
+    public double removeLast() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        size -= 1;
+        modCount += 1;
+        return items[(head + size) & mask];
+    }
+
+    /** Adds n items from src, starting at offset, to the back in order. */
+    public void addLast(double[] src, int offset, int n) {
+        if (n < 0 || offset < 0 || offset + n > src.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        int capacity = items.length;
+        while (size + n > capacity) {
+            capacity *= 2;
+        }
+        if (capacity != items.length) {
+            resize(capacity);
+        }
+        int tail = (head + size) & mask;
+        int firstRun = Math.min(n, items.length - tail);
+        System.arraycopy(src, offset, items, tail, firstRun);
+        System.arraycopy(src, offset + firstRun, items, 0, n - firstRun);
+        size += n;
+        modCount += 1;
+    }
+
+    /**
+     * Copies the n items starting at the given index, where 0 is the
+     * front, into dst starting at offset. The deque is not changed.
+     */
+    public void copyTo(int index, double[] dst, int offset, int n) {
+        if (n < 0 || index < 0 || index + n > size) {
+            throw new IndexOutOfBoundsException("index " + index + ", n " + n + ", size " + size);
+        }
+        int start = (head + index) & mask;
+        int firstRun = Math.min(n, items.length - start);
+        System.arraycopy(items, start, dst, offset, firstRun);
+        System.arraycopy(items, 0, dst, offset + firstRun, n - firstRun);
+    }
+
+    /** Removes the first n items. */
+    public void discardFirst(int n) {
+        if (n < 0 || n > size) {
+            throw new IndexOutOfBoundsException("n " + n + ", size " + size);
+        }
+        head = (head + n) & mask;
+        size -= n;
+        modCount += 1;
+    }
+
+    /** Returns the item at the front without removing it. */
+    public double peekFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return items[head];
+    }
+
+    /** Returns the item at the given index, where 0 is the front. */
+    public double get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+        }
+        return items[(head + index) & mask];
+    }
+
+    /** Replaces the item at the given index, where 0 is the front. */
+    public void set(int index, double x) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+        }
+        items[(head + index) & mask] = x;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Removes every item without releasing the array. */
+    public void clear() {
+        head = 0;
+        size = 0;
+        modCount += 1;
+    }
+
+    /** Prints the items from first to last, separated by spaces, then a newline. */
+    public void printDeque() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(get(i));
+        }
+        System.out.println(sb);
+    }
+
+    /** Copies the items, front first, into an array of newCapacity. */
+    private void resize(int newCapacity) {
+        double[] a = new double[newCapacity];
+        int firstRun = Math.min(size, items.length - head);
+        System.arraycopy(items, head, a, 0, firstRun);
+        System.arraycopy(items, 0, a, firstRun, size - firstRun);
+        items = a;
+        mask = newCapacity - 1;
+        head = 0;
+    }
+
+    /* ------------------------------- Iteration ------------------------------- */
+
+    /** Returns an iterator over the items, front to back, that never boxes. */
+    public PrimitiveIterator.OfDouble iterator() {
+        return new PrimitiveIterator.OfDouble() {
+            private int cursor;
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            @Override
+            public double nextDouble() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (cursor >= size) {
+                    throw new NoSuchElementException();
+                }
+                double x = items[(head + cursor) & mask];
+                cursor += 1;
+                return x;
+            }
+        };
+    }
+
+    /**
+     * Returns a spliterator over the items with the SIZED, SUBSIZED and
+     * ORDERED characteristics. It binds to the deque's size on first use.
+     */
+    public Spliterator.OfDouble spliterator() {
+        return new DoubleSpliterator(0, -1, 0);
+    }
+
+    /** Returns a sequential stream over the items, front to back. */
+    public DoubleStream stream() {
+        return StreamSupport.doubleStream(spliterator(), false);
+    }
+
+    private class DoubleSpliterator implements Spliterator.OfDouble {
+        private int index;
+        /** One past the last index, or -1 until first use. */
+        private int fence;
+        private int expectedModCount;
+
+        DoubleSpliterator(int origin, int fence, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() {
+            if (fence < 0) {
+                fence = size;
+                expectedModCount = modCount;
+            }
+            return fence;
+        }
+
+        @Override
+        public Spliterator.OfDouble trySplit() {
+            int hi = getFence();
+            int mid = (index + hi) >>> 1;
+            if (index >= mid) {
+                return null;
+            }
+            DoubleSpliterator prefix = new DoubleSpliterator(index, mid, expectedModCount);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            int hi = getFence();
+            if (index >= hi) {
+                return false;
+            }
+            double x = items[(head + index) & mask];
+            index += 1;
+            action.accept(x);
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            int hi = getFence();
+            double[] a = items;
+            int h = head;
+            int m = mask;
+            for (; index < hi; index++) {
+                action.accept(a[(h + index) & m]);
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return getFence() - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return SIZED | SUBSIZED | ORDERED;
+        }
+    }
+}
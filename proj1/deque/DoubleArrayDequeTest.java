@@ -0,0 +1,113 @@
+package deque;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.PrimitiveIterator;
+import java.util.ConcurrentModificationException;
+import java.util.ArrayDeque;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/** Tests the DoubleArrayDeque class. */
+public class DoubleArrayDequeTest {
+
+    @Test
+    /* Random operations at both ends, checked against java.util.ArrayDeque. */
+    public void randomizedTest() {
+        DoubleArrayDeque d = new DoubleArrayDeque(1);
+        ArrayDeque<Double> expected = new ArrayDeque<>();
+        Random r = new Random(61);
+        for (int i = 0; i < 100000; i++) {
+            int op = r.nextInt(5);
+            double x = r.nextDouble();
+            if (op == 0) {
+                d.addFirst(x);
+                expected.addFirst(x);
+            } else if (op == 1) {
+                d.addLast(x);
+                expected.addLast(x);
+            } else if (op == 2 && !expected.isEmpty()) {
+                assertEquals(expected.removeFirst(), d.removeFirst(), 0.0);
+            } else if (op == 3 && !expected.isEmpty()) {
+                assertEquals(expected.removeLast(), d.removeLast(), 0.0);
+            } else if (!expected.isEmpty()) {
+                assertEquals(expected.peekFirst(), d.peekFirst(), 0.0);
+            }
+            assertEquals(expected.size(), d.size());
+        }
+        int i = 0;
+        for (double x : expected) {
+            assertEquals(x, d.get(i), 0.0);
+            i += 1;
+        }
+    }
+
+    @Test
+    public void setAndClearTest() {
+        DoubleArrayDeque d = new DoubleArrayDeque();
+        for (int i = 0; i < 20; i++) {
+            d.addFirst(i);
+        }
+        d.set(0, -1);
+        assertEquals(-1, d.get(0), 0.0);
+        assertEquals(0, d.get(19), 0.0);
+        d.clear();
+        assertTrue(d.isEmpty());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void removeFromEmptyTest() {
+        new DoubleArrayDeque().removeFirst();
+    }
+
+    @Test
+    /* Bulk copies that wrap around the end of the array. */
+    public void bulkTest() {
+        DoubleArrayDeque d = new DoubleArrayDeque(8);
+        for (int i = 0; i < 6; i++) {
+            d.addLast(i);
+        }
+        d.discardFirst(5);
+        d.addLast(new double[] {6, 7, 8, 9, 10}, 0, 5);
+        assertEquals(6, d.size());
+        double[] out = new double[8];
+        d.copyTo(1, out, 2, 5);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(6 + i, out[2 + i], 0.0);
+        }
+        /* Forces the array to grow twice. */
+        double[] many = new double[20];
+        d.addLast(many, 0, 20);
+        assertEquals(26, d.size());
+        assertEquals(5, d.removeFirst(), 0.0);
+        assertEquals(10, d.get(4), 0.0);
+    }
+
+    @Test
+    public void streamTest() {
+        DoubleArrayDeque d = new DoubleArrayDeque();
+        for (int i = 0; i < 10000; i++) {
+            d.addFirst(i);
+        }
+        assertEquals(9999.0 * 10000 / 2, d.stream().parallel().sum(), 0.0);
+        double expected = 9999;
+        PrimitiveIterator.OfDouble it = d.iterator();
+        while (it.hasNext()) {
+            assertEquals(expected, it.nextDouble(), 0.0);
+            expected -= 1;
+        }
+        assertEquals(-1, expected, 0.0);
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void failFastIteratorTest() {
+        DoubleArrayDeque d = new DoubleArrayDeque();
+        d.addLast(1);
+        d.addLast(2);
+        PrimitiveIterator.OfDouble it = d.iterator();
+        it.nextDouble();
+        d.addLast(3);
+        it.nextDouble();
+    }
+}
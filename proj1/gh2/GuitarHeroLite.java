@@ -9,15 +9,22 @@ public class GuitarHeroLite {
     public static final double CONCERT_A = 440.0;
     public static final double CONCERT_C = CONCERT_A * Math.pow(2, 3.0 / 12.0);
 
+    /** Samples synthesized per block, about 6 ms of audio. Keys are polled
+     *  once per block. */
+    private static final int BLOCK = 256;
+
     public static void main(String[] args) {
         /* create two guitar strings, for concert A and C */
         GuitarString stringA = new GuitarString(CONCERT_A);
         GuitarString stringC = new GuitarString(CONCERT_C);
 
+        double[] mix = new double[BLOCK];
+        double[] block = new double[BLOCK];
+
         while (true) {
 
             /* check if the user has typed a key; if so, process it */
-            if (StdDraw.hasNextKeyTyped()) {
+            while (StdDraw.hasNextKeyTyped()) {
                 char key = StdDraw.nextKeyTyped();
                 if (key == 'a') {
                     stringA.pluck();
@@ -26,16 +33,16 @@ public class GuitarHeroLite {
                 }
             }
 
-            /* compute the superposition of samples */
-            double sample = stringA.sample() + stringC.sample();
-
-            /* play the sample on standard audio */
-            StdAudio.play(sample);
+            /* compute the superposition of a block of samples, advancing
+             * each guitar string by BLOCK steps */
+            stringA.fill(mix, 0, BLOCK);
+            stringC.fill(block, 0, BLOCK);
+            for (int i = 0; i < BLOCK; i++) {
+                mix[i] += block[i];
+            }
 
-            /* advance the simulation of each guitar string by one step */
-            stringA.tic();
-            stringC.tic();
+            /* play the block on standard audio */
+            StdAudio.play(mix);
         }
     }
 }
-
@@ -8,14 +8,28 @@ import java.io.IOException;
 import java.io.InputStream;
 
 /**
- * Plays guitar from MIDI files.
+ * Plays guitar from MIDI files. Each of the 128 MIDI notes is a voice of a
+ * PolyphonicMixer, so the sounding strings are rendered in parallel, a
+ * block at a time.
+ *
+ * play() sends the result to StdAudio in real time. render() instead runs
+ * as fast as the CPU allows and streams the audio to a WAV file, so it
+ * needs no audio device.
  *
  * @author Eli Lipsitz
  */
 public class GuitarPlayer {
+    /** Samples rendered per mixer block. */
+    private static final int BLOCK = 512;
+
     private Sequence sequence = null;
-    private GuitarString[] strings;
-    private double[] vol;
+    private PolyphonicMixer mixer;
+    private double[] block;
+
+    /** Where rendered audio goes. */
+    private interface Sink {
+        void write(double[] samples, int n) throws IOException;
+    }
 
     public GuitarPlayer(InputStream source) {
         try {
@@ -34,36 +48,67 @@ public class GuitarPlayer {
     }
 
     private void initialize() {
-        strings = new GuitarString[128];
-        vol = new double[128];
-        for (int i = 0; i < strings.length; i++) {
-            strings[i] = new GuitarString(440.0 * Math.pow(2.0, (i - 69.0) / 12.0));
-            vol[i] = 0.0;
+        mixer = new PolyphonicMixer(BLOCK);
+        block = new double[BLOCK];
+        for (int i = 0; i < 128; i++) {
+            mixer.addVoice(new GuitarString(440.0 * Math.pow(2.0, (i - 69.0) / 12.0)));
         }
     }
 
-    private void tic() {
-        for (int i = 0; i < strings.length; i++) {
-            if (vol[i] > 0.0) {
-                strings[i].tic();
-            }
+    /** Renders the next n samples into sink. */
+    private void render(int n, Sink sink) throws IOException {
+        while (n > 0) {
+            int k = Math.min(n, BLOCK);
+            mixer.render(block, k);
+            sink.write(block, k);
+            n -= k;
         }
     }
 
-    private double sample() {
-        double sum = 0.0f;
-        for (int i = 0; i < strings.length; i++) {
-            sum += vol[i] * strings[i].sample();
+    public void play() {
+        if (sequence == null) {
+            return;
+        }
+        System.out.println("starting performance...");
+        try {
+            perform((samples, n) -> {
+                for (int i = 0; i < n; i++) {
+                    StdAudio.play(samples[i]);
+                }
+            }, true);
+        } catch (IOException e) {
+            e.printStackTrace();
         }
-        return sum;
+        System.out.println("please clap");
     }
 
-    public void play() {
+    /**
+     * Renders the whole sequence to a 16-bit mono WAV file at wav, as fast
+     * as possible, and prints how many times faster than real time that
+     * was. Returns that realtime factor.
+     */
+    public double render(File wav) throws IOException {
         if (sequence == null) {
-            return;
+            throw new IOException("no MIDI sequence was loaded");
+        }
+        long start = System.nanoTime();
+        double seconds;
+        try (WavWriter writer = new WavWriter(wav.toPath(), StdAudio.SAMPLE_RATE)) {
+            perform(writer::write, false);
+            seconds = writer.seconds();
         }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        double factor = seconds / elapsed;
+        System.out.printf("rendered %.1f s of audio to %s in %.2f s (%.1fx realtime)%n",
+                seconds, wav, elapsed, factor);
+        return factor;
+    }
 
-        System.out.println("starting performance...");
+    /**
+     * Walks the MIDI events in order, rendering the audio between them
+     * into sink. Lyrics are printed as they come only if live is set.
+     */
+    private void perform(Sink sink, boolean live) throws IOException {
         initialize();
         double bpm = 120;
         double samplesPerTick = StdAudio.SAMPLE_RATE * (60.0 / (sequence.getResolution() * bpm));
@@ -96,19 +141,18 @@ public class GuitarPlayer {
                 } else if (mm.getType() == 0x05) {
                     // lyrics
                     data = mm.getData();
-                    String lyrics = new String(data);
-                    lyrics = lyrics.replace("\r", "\r\n");
-                    System.out.print(lyrics);
+                    if (live) {
+                        String lyrics = new String(data);
+                        lyrics = lyrics.replace("\r", "\r\n");
+                        System.out.print(lyrics);
+                    }
                 }
                 continue;
             }
 
             if (event.getTick() > tick) {
                 int samplesToSkip = (int) ((event.getTick() - tick) * samplesPerTick);
-                for (int j = 0; j < samplesToSkip; j++) {
-                    tic();
-                    StdAudio.play(sample());
-                }
+                render(samplesToSkip, sink);
                 tick = event.getTick();
             }
 
@@ -120,13 +164,13 @@ public class GuitarPlayer {
                     // note off
                     int note = data[j++] & 0xFF;
                     int vel = data[j++] & 0xFF;
-                    vol[note] = 0.0;
+                    mixer.setGain(note, 0.0);
                 } else if (s >= 0x90 && s <= 0x9F) {
                     // note on?
                     int note = data[j++] & 0xFF;
                     int vel = data[j++] & 0xFF;
-                    vol[note] = vel / 127.0;
-                    strings[note].pluck();
+                    mixer.setGain(note, vel / 127.0);
+                    mixer.voice(note).pluck();
                 } else {
                     // status
                     int d = data[j++] & 0xFF;
@@ -134,7 +178,5 @@ public class GuitarPlayer {
                 }
             }
         }
-
-        System.out.println("please clap");
     }
 }
@@ -1,55 +1,133 @@
 package gh2;
 
-// TODO: uncomment the following import once you're ready to start this portion
-// import deque.Deque;
-// TODO: maybe more imports
+import deque.DoubleArrayDeque;
 
-//Note: This file will not compile until you complete the Deque implementations
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A plucked string simulated with the Karplus-Strong algorithm. The
+ * samples live in a primitive DoubleArrayDeque, so pluck(), tic() and
+ * sample() never allocate, however many strings are sounding at once.
+ *
+ * fill() produces a whole block of samples at a time. Since each new
+ * sample depends only on samples at least (buffer length - 1) steps old,
+ * the block is computed in runs of that length, each a single loop over a
+ * plain array with no per-sample calls into the deque.
+ *
+ * fill() also notices when a string has decayed below audibility: once a
+ * full buffer's worth of new samples has stayed under IDLE_LEVEL, the
+ * buffer is zeroed, isIdle() turns true, and later fills just write
+ * zeros until the next pluck().
+ */
 public class GuitarString {
     /** Constants. Do not change. In case you're curious, the keyword final
      * means the values cannot be changed at runtime. We'll discuss this and
      * other topics in lecture on Friday. */
     private static final int SR = 44100;      // Sampling Rate
     private static final double DECAY = .996; // energy decay factor
+    /** Amplitude below which a string counts as silent, about -80 dB. */
+    private static final double IDLE_LEVEL = 1e-4;
 
     /* Buffer for storing sound data. */
-    // TODO: uncomment the following line once you're ready to start this portion
-    // private Deque<Double> buffer;
+    private DoubleArrayDeque buffer;
+    /* Holds one run of samples while fill() computes their successors. */
+    private double[] run;
+    /* Number of consecutive samples fill() has produced below IDLE_LEVEL. */
+    private int quietSamples;
+    private boolean idle = true;
 
     /* Create a guitar string of the given frequency.  */
     public GuitarString(double frequency) {
-        // TODO: Create a buffer with capacity = SR / frequency. You'll need to
-        //       cast the result of this division operation into an int. For
-        //       better accuracy, use the Math.round() function before casting.
-        //       Your should initially fill your buffer array with zeros.
+        /* The recurrence needs at least two samples to average. */
+        int capacity = Math.max(2, (int) Math.round(SR / frequency));
+        buffer = new DoubleArrayDeque(capacity);
+        for (int i = 0; i < capacity; i++) {
+            buffer.addLast(0.0);
+        }
+        run = new double[capacity];
     }
 
 
     /* Pluck the guitar string by replacing the buffer with white noise. */
     public void pluck() {
-        // TODO: Dequeue everything in buffer, and replace with random numbers
-        //       between -0.5 and 0.5. You can get such a number by using:
-        //       double r = Math.random() - 0.5;
-        //
-        //       Make sure that your random numbers are different from each
-        //       other. This does not mean that you need to check that the numbers
-        //       are different from each other. It means you should repeatedly call
-        //       Math.random() - 0.5 to generate new random numbers for each array index.
+        for (int i = 0; i < buffer.size(); i++) {
+            buffer.set(i, Math.random() - 0.5);
+        }
+        quietSamples = 0;
+        idle = false;
+    }
+
+    /* Pluck the guitar string with white noise drawn from random, so that
+     * the same seed always produces the same sound. */
+    public void pluck(Random random) {
+        for (int i = 0; i < buffer.size(); i++) {
+            buffer.set(i, random.nextDouble() - 0.5);
+        }
+        quietSamples = 0;
+        idle = false;
     }
 
     /* Advance the simulation one time step by performing one iteration of
      * the Karplus-Strong algorithm.
      */
     public void tic() {
-        // TODO: Dequeue the front sample and enqueue a new sample that is
-        //       the average of the two multiplied by the DECAY factor.
-        //       **Do not call StdAudio.play().**
+        double first = buffer.removeFirst();
+        buffer.addLast(DECAY * 0.5 * (first + buffer.peekFirst()));
     }
 
     /* Return the double at the front of the buffer. */
     public double sample() {
-        // TODO: Return the correct thing.
-        return 0;
+        return buffer.peekFirst();
+    }
+
+    /* Write the next n samples into out, starting at offset, advancing the
+     * simulation n time steps. Equivalent to n rounds of
+     * out[offset + i] = sample(); tic(); but much faster.
+     */
+    public void fill(double[] out, int offset, int n) {
+        if (n < 0 || offset < 0 || offset + n > out.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (idle) {
+            Arrays.fill(out, offset, offset + n, 0.0);
+            return;
+        }
+        int maxRun = run.length - 1;
+        while (n > 0) {
+            int k = Math.min(n, maxRun);
+            /* The k samples to emit plus the one after them. */
+            buffer.copyTo(0, run, 0, k + 1);
+            System.arraycopy(run, 0, out, offset, k);
+            double peak = 0;
+            for (int i = 0; i < k; i++) {
+                run[i] = DECAY * 0.5 * (run[i] + run[i + 1]);
+                peak = Math.max(peak, Math.abs(run[i]));
+            }
+            buffer.discardFirst(k);
+            buffer.addLast(run, 0, k);
+            offset += k;
+            n -= k;
+            quietSamples = peak < IDLE_LEVEL ? quietSamples + k : 0;
+            if (quietSamples >= buffer.size()) {
+                /* Every sample in the buffer is below IDLE_LEVEL. */
+                goIdle();
+                Arrays.fill(out, offset, offset + n, 0.0);
+                return;
+            }
+        }
+    }
+
+    /* Return true if the string has decayed to silence since its last
+     * pluck, as detected by fill(). */
+    public boolean isIdle() {
+        return idle;
+    }
+
+    private void goIdle() {
+        for (int i = 0; i < buffer.size(); i++) {
+            buffer.set(i, 0.0);
+        }
+        idle = true;
     }
 }
-    // TODO: Remove all comments that say TODO when you're done.
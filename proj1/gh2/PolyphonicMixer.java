@@ -0,0 +1,176 @@
+package gh2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Mixes many GuitarStrings into one output stream, rendering them in
+ * parallel on a ForkJoinPool.
+ *
+ * Each call to render() produces one block (audio period) of samples. The
+ * active voices, those with a non-zero gain that have not decayed to
+ * silence, are split into partitions of VOICES_PER_TASK. Each partition
+ * is rendered by one task into its own accumulator with
+ * GuitarString.fill(), and the accumulators are then summed pairwise up
+ * the fork-join tree, so the reduction is parallel too. Idle voices cost
+ * nothing beyond a flag check.
+ *
+ * The accumulators are allocated up front and reused, so rendering a
+ * block allocates only the fork-join tasks themselves. A voice must not
+ * be used by anything else while render() is running.
+ */
+public class PolyphonicMixer {
+    /** Voices rendered sequentially by one leaf task. */
+    private static final int VOICES_PER_TASK = 8;
+
+    private final ForkJoinPool pool;
+    private final int blockSize;
+    private final List<GuitarString> voices = new ArrayList<>();
+    private double[] gains = new double[16];
+
+    /* Indices of the voices being rendered in the current block. */
+    private int[] active = new int[16];
+    private int activeCount;
+    /* One accumulator and one scratch block per partition. */
+    private double[][] sums = new double[0][];
+    private double[][] scratch = new double[0][];
+
+    /** Creates a mixer that renders blocks of up to blockSize samples on
+     *  the common pool. */
+    public PolyphonicMixer(int blockSize) {
+        this(blockSize, ForkJoinPool.commonPool());
+    }
+
+    public PolyphonicMixer(int blockSize, ForkJoinPool pool) {
+        if (blockSize < 1 || pool == null) {
+            throw new IllegalArgumentException();
+        }
+        this.blockSize = blockSize;
+        this.pool = pool;
+    }
+
+    /** Adds a voice with gain 0 and returns its index. */
+    public int addVoice(GuitarString voice) {
+        if (voices.size() == gains.length) {
+            gains = Arrays.copyOf(gains, gains.length * 2);
+            active = Arrays.copyOf(active, active.length * 2);
+        }
+        voices.add(voice);
+        return voices.size() - 1;
+    }
+
+    /** Returns the voice with the given index. */
+    public GuitarString voice(int index) {
+        return voices.get(index);
+    }
+
+    /** Sets the volume of a voice. A voice with gain 0 is not rendered. */
+    public void setGain(int voice, double gain) {
+        if (voice < 0 || voice >= voices.size()) {
+            throw new IllegalArgumentException("no voice " + voice);
+        }
+        gains[voice] = gain;
+    }
+
+    public int blockSize() {
+        return blockSize;
+    }
+
+    /** Returns the number of voices that were rendered by the last block. */
+    public int activeVoices() {
+        return activeCount;
+    }
+
+    /**
+     * Writes the mix of the next n samples of every active voice into
+     * out[0..n), advancing each of them n steps. n must not exceed
+     * blockSize().
+     */
+    public void render(double[] out, int n) {
+        if (n < 0 || n > blockSize || n > out.length) {
+            throw new IllegalArgumentException("bad block length " + n);
+        }
+        activeCount = 0;
+        for (int i = 0; i < voices.size(); i++) {
+            if (gains[i] != 0 && !voices.get(i).isIdle()) {
+                active[activeCount] = i;
+                activeCount += 1;
+            }
+        }
+        int partitions = (activeCount + VOICES_PER_TASK - 1) / VOICES_PER_TASK;
+        if (partitions == 0) {
+            Arrays.fill(out, 0, n, 0.0);
+            return;
+        }
+        ensurePartitions(partitions);
+        if (partitions == 1) {
+            /* Not worth a trip through the pool. */
+            renderPartition(0, n);
+        } else {
+            pool.invoke(new MixTask(0, partitions, n));
+        }
+        System.arraycopy(sums[0], 0, out, 0, n);
+    }
+
+    private void ensurePartitions(int partitions) {
+        int old = sums.length;
+        if (partitions <= old) {
+            return;
+        }
+        sums = Arrays.copyOf(sums, partitions);
+        scratch = Arrays.copyOf(scratch, partitions);
+        for (int p = old; p < partitions; p++) {
+            sums[p] = new double[blockSize];
+            scratch[p] = new double[blockSize];
+        }
+    }
+
+    /** Renders the voices of partition p into sums[p]. */
+    private void renderPartition(int p, int n) {
+        double[] sum = sums[p];
+        double[] block = scratch[p];
+        Arrays.fill(sum, 0, n, 0.0);
+        int end = Math.min(activeCount, (p + 1) * VOICES_PER_TASK);
+        for (int a = p * VOICES_PER_TASK; a < end; a++) {
+            int v = active[a];
+            double gain = gains[v];
+            voices.get(v).fill(block, 0, n);
+            for (int i = 0; i < n; i++) {
+                sum[i] += gain * block[i];
+            }
+        }
+    }
+
+    /** Renders partitions [lo, hi) and leaves their total in sums[lo]. */
+    private class MixTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int lo;
+        private final int hi;
+        private final int n;
+
+        MixTask(int lo, int hi, int n) {
+            this.lo = lo;
+            this.hi = hi;
+            this.n = n;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                renderPartition(lo, n);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new MixTask(lo, mid, n), new MixTask(mid, hi, n));
+            double[] left = sums[lo];
+            double[] right = sums[mid];
+            for (int i = 0; i < n; i++) {
+                left[i] += right[i];
+            }
+        }
+    }
+}
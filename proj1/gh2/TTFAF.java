@@ -18,7 +18,12 @@ public class TTFAF {
             InputStream source = new ByteArrayInputStream(Base64.getDecoder().decode(TTFAF));
             source = new GZIPInputStream(source);
             GuitarPlayer player = new GuitarPlayer(source);
-            player.play();
+            if (args.length > 0) {
+                // Given a file name, render to a WAV file instead of playing.
+                player.render(new java.io.File(args[0]));
+            } else {
+                player.play();
+            }
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -26,6 +31,7 @@ public class TTFAF {
         // You can also do this:
         // GuitarPlayer player = new GuitarPlayer(new java.io.File("path/to/music.mid"));
         // player.play();
+        // or: player.render(new java.io.File("music.wav"));
     }
 
     private static final String TTFAF =
@@ -79,5 +79,43 @@ public class TestGuitarString  {
         // for assertEquals(double, double)
         assertEquals("Wrong tic value. Try running the testTic method.", expected, s5, 0.001);
     }
-}
 
+    @Test
+    public void testTicDoesNotAllocate() {
+        com.sun.management.ThreadMXBean bean =
+            (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+        GuitarString s = new GuitarString(GuitarHeroLite.CONCERT_A);
+        s.pluck();
+        /* Warm up so the loop below runs compiled code. */
+        double sum = 0;
+        for (int i = 0; i < 200000; i += 1) {
+            sum += s.sample();
+            s.tic();
+        }
+        long before = bean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 1000000; i += 1) {
+            sum += s.sample();
+            s.tic();
+        }
+        long allocated = bean.getCurrentThreadAllocatedBytes() - before;
+        assertTrue("tic() and sample() allocated " + allocated + " bytes", allocated < 100000);
+        assertFalse(Double.isNaN(sum));
+    }
+
+    @Test
+    public void testFillMatchesRecurrence() {
+        /* A Deque of length 4, so fill() works in runs of 3 samples. */
+        GuitarString s = new GuitarString(11025);
+        s.pluck();
+        double[] out = new double[1003];
+        s.fill(out, 0, 1);
+        s.fill(out, 1, 999);
+        for (int i = 1000; i < out.length; i += 1) {
+            out[i] = s.sample();
+            s.tic();
+        }
+        for (int i = 0; i + 4 < out.length; i += 1) {
+            assertEquals("sample " + (i + 4), 0.996 * 0.5 * (out[i] + out[i + 1]), out[i + 4], 1e-12);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package gh2;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/** Tests the PolyphonicMixer class. */
+public class TestPolyphonicMixer {
+
+    private static GuitarString[] strings(int n, long seed) {
+        Random r = new Random(seed);
+        GuitarString[] result = new GuitarString[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = new GuitarString(110.0 * Math.pow(2.0, i / 12.0));
+            result[i].pluck(r);
+        }
+        return result;
+    }
+
+    @Test
+    public void testMatchesSequentialMix() {
+        int voices = 50;
+        int blockSize = 300;
+        GuitarString[] mixed = strings(voices, 61);
+        GuitarString[] reference = strings(voices, 61);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            PolyphonicMixer mixer = new PolyphonicMixer(blockSize, pool);
+            for (int i = 0; i < voices; i++) {
+                mixer.addVoice(mixed[i]);
+                mixer.setGain(i, i % 5 == 0 ? 0.0 : 1.0 / (i + 1));
+            }
+
+            double[] out = new double[blockSize];
+            for (int block = 0; block < 20; block++) {
+                int n = block % 3 == 2 ? blockSize / 2 : blockSize;
+                mixer.render(out, n);
+                for (int t = 0; t < n; t++) {
+                    double expected = 0;
+                    for (int i = 0; i < voices; i++) {
+                        if (i % 5 != 0) {
+                            expected += reference[i].sample() / (i + 1);
+                            reference[i].tic();
+                        }
+                    }
+                    assertEquals("block " + block + " sample " + t, expected, out[t], 1e-9);
+                }
+            }
+            assertEquals(40, mixer.activeVoices());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testDecayedStringsAreSkipped() {
+        PolyphonicMixer mixer = new PolyphonicMixer(1024);
+        GuitarString s = new GuitarString(GuitarHeroLite.CONCERT_A);
+        mixer.setGain(mixer.addVoice(s), 1.0);
+        double[] out = new double[1024];
+
+        mixer.render(out, 1024);
+        assertEquals("an unplucked string is idle", 0, mixer.activeVoices());
+
+        s.pluck(new Random(61));
+        mixer.render(out, 1024);
+        assertEquals(1, mixer.activeVoices());
+        assertFalse(s.isIdle());
+
+        /* 0.996 per round trip of 100 samples falls below -80 dB well
+         * within 20 seconds of audio. */
+        for (int i = 0; i < 20 * 44100 / 1024 && !s.isIdle(); i++) {
+            mixer.render(out, 1024);
+        }
+        assertTrue(s.isIdle());
+        mixer.render(out, 1024);
+        assertEquals(0, mixer.activeVoices());
+        for (double x : out) {
+            assertEquals(0.0, x, 0.0);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package gh2;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/** Tests the WavWriter class. */
+public class TestWavWriter {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        File file = folder.newFile("out.wav");
+        /* Enough samples to flush the write buffer several times. */
+        int n = 100000;
+        double[] samples = new double[n];
+        for (int i = 0; i < n; i++) {
+            samples[i] = Math.sin(i / 10.0) * 1.2;
+        }
+        try (WavWriter writer = new WavWriter(file.toPath(), 44100)) {
+            writer.write(samples, 1000);
+            double[] rest = new double[n - 1000];
+            System.arraycopy(samples, 1000, rest, 0, rest.length);
+            writer.write(rest, rest.length);
+            assertEquals(n, writer.samples());
+        }
+        assertEquals(44 + 2L * n, file.length());
+
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(file)) {
+            AudioFormat format = in.getFormat();
+            assertEquals(44100, format.getSampleRate(), 0.0);
+            assertEquals(1, format.getChannels());
+            assertEquals(16, format.getSampleSizeInBits());
+            assertEquals(n, in.getFrameLength());
+            ByteBuffer data = ByteBuffer.wrap(in.readAllBytes()).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < n; i++) {
+                double clipped = Math.max(-1, Math.min(1, samples[i]));
+                assertEquals("sample " + i, clipped, data.getShort() / 32767.0, 1.0 / 32767);
+            }
+        }
+    }
+}
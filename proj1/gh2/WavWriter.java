@@ -0,0 +1,105 @@
+package gh2;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams mono 16-bit PCM samples into a WAV file. Samples are converted
+ * into a direct buffer and written to a FileChannel whenever it fills, so
+ * the file is never held in memory. The header's length fields are only
+ * known at the end and are filled in by close().
+ */
+public class WavWriter implements Closeable {
+    private static final int HEADER_BYTES = 44;
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final int sampleRate;
+    private long samples;
+
+    /** Creates or truncates the file at path and writes a placeholder header. */
+    public WavWriter(Path path, int sampleRate) throws IOException {
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("bad sample rate: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(HEADER_BYTES);
+    }
+
+    /**
+     * Appends samples[0..n). Samples are clipped to [-1, 1] and scaled to
+     * 16-bit integers.
+     */
+    public void write(double[] samples, int n) throws IOException {
+        for (int i = 0; i < n; i++) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            double x = Math.max(-1.0, Math.min(1.0, samples[i]));
+            buffer.putShort((short) Math.round(x * Short.MAX_VALUE));
+        }
+        this.samples += n;
+    }
+
+    /** Returns the number of samples written so far. */
+    public long samples() {
+        return samples;
+    }
+
+    /** Returns the number of seconds of audio written so far. */
+    public double seconds() {
+        return (double) samples / sampleRate;
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /** Writes any buffered samples and the final header, then closes the file. */
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            flush();
+            long dataBytes = samples * 2;
+            if (dataBytes > 0xFFFFFFFFL - 36) {
+                throw new IOException("too much audio for one WAV file");
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.put(new byte[] {'R', 'I', 'F', 'F'});
+            header.putInt((int) (36 + dataBytes));
+            header.put(new byte[] {'W', 'A', 'V', 'E', 'f', 'm', 't', ' '});
+            header.putInt(16);                  // fmt chunk size
+            header.putShort((short) 1);         // PCM
+            header.putShort((short) 1);         // mono
+            header.putInt(sampleRate);
+            header.putInt(sampleRate * 2);      // bytes per second
+            header.putShort((short) 2);         // bytes per frame
+            header.putShort((short) 16);        // bits per sample
+            header.put(new byte[] {'d', 'a', 't', 'a'});
+            header.putInt((int) dataBytes);
+            header.flip();
+            long position = 0;
+            while (header.hasRemaining()) {
+                position += channel.write(header, position);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package tester;
+
+import student.StudentArrayDeque;
+
+/**
+ * Checks StudentArrayDeque against ArrayDequeSolution with
+ * DifferentialTester, prints the shortest failing sequence of calls it
+ * can find, and compares the speed of the two.
+ *
+ * Usage: java tester.DequeDifferentialLauncher [traces] [trace length]
+ */
+public class DequeDifferentialLauncher {
+    public static void main(String[] args) {
+        int traces = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int length = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        DifferentialTester<ArrayDequeSolution<Integer>, StudentArrayDeque<Integer>> tester =
+            new DifferentialTester<>(ArrayDequeSolution::new, StudentArrayDeque::new);
+        addDequeOperations(tester);
+
+        DifferentialTester.Failure<?, ?> failure = tester.findFailure(61, traces, length);
+        if (failure == null) {
+            System.out.println("No differences in " + traces + " traces of " + length + " calls.");
+        } else {
+            System.out.println("Shortest failing sequence found:");
+            System.out.print(failure);
+        }
+
+        for (DifferentialTester.Throughput t : tester.measure(61, 1000000, 3)) {
+            System.out.println(t);
+        }
+    }
+
+    /** Adds the Deque operations, with adds and removes equally likely. */
+    static void addDequeOperations(
+            DifferentialTester<ArrayDequeSolution<Integer>, StudentArrayDeque<Integer>> tester) {
+        tester.addOperation(3, (random, reference) -> {
+            int x = random.nextInt(100);
+            return DifferentialTester.Step.of("addFirst(" + x + ")",
+                d -> { d.addFirst(x); return null; },
+                d -> { d.addFirst(x); return null; });
+        });
+        tester.addOperation(3, (random, reference) -> {
+            int x = random.nextInt(100);
+            return DifferentialTester.Step.of("addLast(" + x + ")",
+                d -> { d.addLast(x); return null; },
+                d -> { d.addLast(x); return null; });
+        });
+        /* LinkedList throws when empty, where a Deque returns null. */
+        tester.addOperation(3, (random, reference) -> DifferentialTester.Step.of("removeFirst()",
+            d -> d.isEmpty() ? null : d.removeFirst(), StudentArrayDeque::removeFirst));
+        tester.addOperation(3, (random, reference) -> DifferentialTester.Step.of("removeLast()",
+            d -> d.isEmpty() ? null : d.removeLast(), StudentArrayDeque::removeLast));
+        tester.addOperation(1, (random, reference) -> DifferentialTester.Step.of("size()",
+            ArrayDequeSolution::size, StudentArrayDeque::size));
+        tester.addOperation(2, (random, reference) -> {
+            int i = reference.isEmpty() ? 0 : random.nextInt(reference.size());
+            return DifferentialTester.Step.of("get(" + i + ")",
+                d -> i < d.size() ? d.get(i) : null,
+                d -> d.get(i));
+        });
+    }
+}
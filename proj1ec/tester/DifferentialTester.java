@@ -0,0 +1,313 @@
+package tester;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Finds behavioral differences between a candidate implementation and a
+ * trusted reference by running both through the same random traces of
+ * operations. The two need not share a type: each operation says how to
+ * apply itself to a reference of type R and to a candidate of type C, and
+ * the results of the two calls are compared with Objects.equals. Two calls
+ * that both throw count as agreeing.
+ *
+ * When a trace disagrees, it is shrunk by repeatedly deleting runs of
+ * operations, from long runs down to single ones, for as long as the
+ * shorter trace still disagrees. What is reported is therefore a trace in
+ * which no single operation can be removed without the failure going
+ * away, which is usually a handful of calls.
+ *
+ * measure() replays one long trace against each side alone and reports
+ * operations per second and bytes allocated per operation, so a faster
+ * candidate can be vetted for speed as well as for correctness.
+ *
+ * A typical use, for deques:
+ *
+ *   DifferentialTester&lt;ArrayDequeSolution&lt;Integer&gt;, StudentArrayDeque&lt;Integer&gt;&gt; t =
+ *       new DifferentialTester&lt;&gt;(ArrayDequeSolution::new, StudentArrayDeque::new);
+ *   t.addOperation(1, (random, reference) -&gt; {
+ *       int x = random.nextInt(100);
+ *       return Step.of("addLast(" + x + ")", d -&gt; { d.addLast(x); return null; },
+ *                                              d -&gt; { d.addLast(x); return null; });
+ *   });
+ *   Failure&lt;...&gt; f = t.findFailure(61, 1000000, 50);
+ */
+public class DifferentialTester<R, C> {
+
+    /** One call with fixed arguments, applicable to either implementation. */
+    public static class Step<R, C> {
+        private final String description;
+        private final Function<R, Object> onReference;
+        private final Function<C, Object> onCandidate;
+
+        private Step(String description, Function<R, Object> onReference,
+                     Function<C, Object> onCandidate) {
+            this.description = description;
+            this.onReference = onReference;
+            this.onCandidate = onCandidate;
+        }
+
+        /**
+         * Returns a step shown as description that performs onReference or
+         * onCandidate and returns whatever the call observably returned.
+         */
+        public static <R, C> Step<R, C> of(String description, Function<R, Object> onReference,
+                                           Function<C, Object> onCandidate) {
+            return new Step<>(description, onReference, onCandidate);
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+
+    /** Makes a random step, possibly depending on the reference's state. */
+    @FunctionalInterface
+    public interface Generator<R, C> {
+        Step<R, C> next(Random random, R reference);
+    }
+
+    /** A minimal trace on which the two implementations disagree. */
+    public static class Failure<R, C> {
+        private final List<Step<R, C>> trace;
+        private final String expected;
+        private final String actual;
+
+        Failure(List<Step<R, C>> trace, String expected, String actual) {
+            this.trace = trace;
+            this.expected = expected;
+            this.actual = actual;
+        }
+
+        /** Returns the steps of the shrunk trace. The last one disagrees. */
+        public List<Step<R, C>> trace() {
+            return trace;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < trace.size(); i++) {
+                sb.append(trace.get(i));
+                if (i == trace.size() - 1) {
+                    sb.append("  // expected ").append(expected)
+                      .append(", got ").append(actual);
+                }
+                sb.append('\n');
+            }
+            return sb.toString();
+        }
+    }
+
+    /** Speed and allocation of one implementation on one trace. */
+    public static class Throughput {
+        private final String name;
+        private final long operations;
+        private final long nanos;
+        private final long bytes;
+
+        Throughput(String name, long operations, long nanos, long bytes) {
+            this.name = name;
+            this.operations = operations;
+            this.nanos = nanos;
+            this.bytes = bytes;
+        }
+
+        public double opsPerSecond() {
+            return operations / (nanos / 1e9);
+        }
+
+        /** Returns bytes allocated per operation, or -1 if the JVM cannot tell. */
+        public double bytesPerOp() {
+            return bytes < 0 ? -1 : (double) bytes / operations;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %.3g ops/s, %.1f bytes/op", name, opsPerSecond(), bytesPerOp());
+        }
+    }
+
+    /** Stands for the outcome of a call that threw. */
+    private static final Object THREW = new Object() {
+        @Override
+        public String toString() {
+            return "an exception";
+        }
+    };
+
+    private final Supplier<R> referenceFactory;
+    private final Supplier<C> candidateFactory;
+    private final List<Generator<R, C>> generators = new ArrayList<>();
+    private final List<Integer> weights = new ArrayList<>();
+    private int totalWeight;
+
+    public DifferentialTester(Supplier<R> referenceFactory, Supplier<C> candidateFactory) {
+        this.referenceFactory = referenceFactory;
+        this.candidateFactory = candidateFactory;
+    }
+
+    /** Adds an operation, chosen with probability weight / total weight. */
+    public DifferentialTester<R, C> addOperation(int weight, Generator<R, C> generator) {
+        if (weight < 1) {
+            throw new IllegalArgumentException("weight must be positive");
+        }
+        generators.add(generator);
+        weights.add(weight);
+        totalWeight += weight;
+        return this;
+    }
+
+    private Generator<R, C> pick(Random random) {
+        int r = random.nextInt(totalWeight);
+        for (int i = 0; i < generators.size(); i++) {
+            r -= weights.get(i);
+            if (r < 0) {
+                return generators.get(i);
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    /* ------------------------------- Correctness ------------------------------- */
+
+    /**
+     * Runs the given number of random traces of traceLength steps each,
+     * starting from fresh instances every time. Returns the shrunk first
+     * disagreement found, or null if the implementations always agreed.
+     */
+    public Failure<R, C> findFailure(long seed, int traces, int traceLength) {
+        if (generators.isEmpty()) {
+            throw new IllegalStateException("no operations were added");
+        }
+        Random random = new Random(seed);
+        List<Step<R, C>> trace = new ArrayList<>(traceLength);
+        for (int t = 0; t < traces; t++) {
+            trace.clear();
+            R reference = referenceFactory.get();
+            C candidate = candidateFactory.get();
+            for (int i = 0; i < traceLength; i++) {
+                Step<R, C> step = pick(random).next(random, reference);
+                trace.add(step);
+                Object expected = outcome(step.onReference, reference);
+                Object actual = outcome(step.onCandidate, candidate);
+                if (!Objects.equals(expected, actual)) {
+                    return shrink(new ArrayList<>(trace));
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Returns what applying call to subject returned, or THREW. */
+    private static <T> Object outcome(Function<T, Object> call, T subject) {
+        try {
+            return call.apply(subject);
+        } catch (RuntimeException | AssertionError e) {
+            return THREW;
+        }
+    }
+
+    /**
+     * Replays trace on fresh instances. Returns the failure at the first
+     * disagreeing step, with the trace cut after it, or null.
+     */
+    private Failure<R, C> replay(List<Step<R, C>> trace) {
+        R reference = referenceFactory.get();
+        C candidate = candidateFactory.get();
+        for (int i = 0; i < trace.size(); i++) {
+            Step<R, C> step = trace.get(i);
+            Object expected = outcome(step.onReference, reference);
+            Object actual = outcome(step.onCandidate, candidate);
+            if (!Objects.equals(expected, actual)) {
+                return new Failure<>(new ArrayList<>(trace.subList(0, i + 1)),
+                        String.valueOf(expected), String.valueOf(actual));
+            }
+        }
+        return null;
+    }
+
+    /** Deletes runs of steps, longest first, while the trace keeps failing. */
+    private Failure<R, C> shrink(List<Step<R, C>> trace) {
+        Failure<R, C> best = replay(trace);
+        if (best == null) {
+            /* The failure depends on something outside the trace. */
+            return new Failure<>(trace, "?", "not reproducible on replay");
+        }
+        for (int chunk = best.trace.size() / 2; chunk >= 1; chunk /= 2) {
+            boolean removed = true;
+            while (removed) {
+                removed = false;
+                for (int start = 0; start + chunk <= best.trace.size(); start += chunk) {
+                    List<Step<R, C>> shorter = new ArrayList<>(best.trace.subList(0, start));
+                    shorter.addAll(best.trace.subList(start + chunk, best.trace.size()));
+                    Failure<R, C> f = replay(shorter);
+                    if (f != null) {
+                        best = f;
+                        removed = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /* ------------------------------- Speed ------------------------------- */
+
+    /**
+     * Generates one trace of the given length against the reference, then
+     * times it on a fresh reference and a fresh candidate, each after
+     * warmupRuns untimed replays. Returns {reference, candidate}.
+     */
+    @SuppressWarnings("unchecked")
+    public Throughput[] measure(long seed, int length, int warmupRuns) {
+        Random random = new Random(seed);
+        R generatorState = referenceFactory.get();
+        List<Step<R, C>> trace = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            Step<R, C> step = pick(random).next(random, generatorState);
+            outcome(step.onReference, generatorState);
+            trace.add(step);
+        }
+        Throughput r = time("reference", referenceFactory, trace, s -> s.onReference, warmupRuns);
+        Throughput c = time("candidate", candidateFactory, trace, s -> s.onCandidate, warmupRuns);
+        return new Throughput[] {r, c};
+    }
+
+    private static <T, R, C> Throughput time(String name, Supplier<T> factory, List<Step<R, C>> trace,
+                                             Function<Step<R, C>, Function<T, Object>> side,
+                                             int warmupRuns) {
+        for (int w = 0; w < warmupRuns; w++) {
+            T subject = factory.get();
+            for (Step<R, C> step : trace) {
+                outcome(side.apply(step), subject);
+            }
+        }
+        T subject = factory.get();
+        long bytesBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (Step<R, C> step : trace) {
+            outcome(side.apply(step), subject);
+        }
+        long nanos = System.nanoTime() - start;
+        long bytesAfter = allocatedBytes();
+        long bytes = bytesBefore < 0 ? -1 : bytesAfter - bytesBefore;
+        return new Throughput(name, trace.size(), Math.max(1, nanos), bytes);
+    }
+
+    /** Returns the bytes this thread has allocated, or -1 if unsupported. */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+}
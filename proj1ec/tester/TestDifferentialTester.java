@@ -0,0 +1,64 @@
+package tester;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+/** Tests DifferentialTester on lists with and without a planted bug. */
+public class TestDifferentialTester {
+
+    /** An ArrayList whose buggyRemoveLast() returns the wrong item once it
+     *  holds more than three items.  It is not named removeLast, which
+     *  ArrayList itself declares publicly from JDK 21 on. */
+    private static class BuggyList extends ArrayList<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        Integer buggyRemoveLast() {
+            return size() > 3 ? remove(0) : remove(size() - 1);
+        }
+    }
+
+    private static DifferentialTester<ArrayList<Integer>, BuggyList> tester() {
+        DifferentialTester<ArrayList<Integer>, BuggyList> t =
+            new DifferentialTester<>(ArrayList::new, BuggyList::new);
+        t.addOperation(2, (random, reference) -> {
+            int x = random.nextInt(1000);
+            return DifferentialTester.Step.of("addLast(" + x + ")",
+                l -> l.add(x), l -> l.add(x));
+        });
+        t.addOperation(1, (random, reference) -> DifferentialTester.Step.of("removeLast()",
+            l -> l.isEmpty() ? null : l.remove(l.size() - 1),
+            l -> l.isEmpty() ? null : l.buggyRemoveLast()));
+        t.addOperation(1, (random, reference) -> DifferentialTester.Step.of("size()",
+            ArrayList::size, ArrayList::size));
+        return t;
+    }
+
+    @Test
+    public void testFindsAndShrinksFailure() {
+        DifferentialTester.Failure<ArrayList<Integer>, BuggyList> f = tester().findFailure(61, 1000, 100);
+        assertNotNull(f);
+        /* Four adds and the bad removeLast is as short as it gets. */
+        assertEquals(f.toString(), 5, f.trace().size());
+        assertEquals("removeLast()", f.trace().get(4).toString());
+    }
+
+    @Test
+    public void testAgreeingImplementations() {
+        DifferentialTester<ArrayList<Integer>, ArrayList<Integer>> t =
+            new DifferentialTester<>(ArrayList::new, ArrayList::new);
+        t.addOperation(1, (random, reference) -> {
+            int x = random.nextInt();
+            return DifferentialTester.Step.of("add(" + x + ")", l -> l.add(x), l -> l.add(x));
+        });
+        t.addOperation(1, (random, reference) -> DifferentialTester.Step.of("remove(0)",
+            l -> l.remove(0), l -> l.remove(0)));
+        assertNull("calls that throw on both sides agree", t.findFailure(61, 1000, 50));
+
+        DifferentialTester.Throughput[] speeds = t.measure(61, 100000, 1);
+        assertEquals(2, speeds.length);
+        assertTrue(speeds[0].opsPerSecond() > 0);
+        assertTrue(speeds[1].opsPerSecond() > 0);
+    }
+}
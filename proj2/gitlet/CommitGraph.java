@@ -0,0 +1,438 @@
+package gitlet;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.TreeMap;
+
+import static gitlet.Utils.*;
+
+/** The shape of the commit history: for every commit, its parents, its
+ *  timestamp and its generation number, held in primitive arrays
+ *  indexed by position, so that walking the history needs no Commit to
+ *  be read or deserialized.
+ *
+ *  A commit with no parents has generation 1, and any other commit has a
+ *  generation one greater than the largest of its parents'.  A commit is
+ *  therefore never an ancestor of a commit of lower or equal generation,
+ *  which lets searches stop early.
+ *
+ *  The graph file starts with the magic number "CGPH", a version and the
+ *  number of commits, N.  Then come the N ids in increasing order, 20
+ *  bytes each, and, for the commit at each position, the positions of
+ *  its first and second parents (-1 if it has none) as ints, its
+ *  timestamp in milliseconds as a long, and its generation as an int,
+ *  each as an array of N values. */
+class CommitGraph {
+
+    /** The graph stored in FILE. */
+    CommitGraph(File file) {
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+            if (buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+                throw error("%s is not a commit graph", file);
+            }
+            int n = buf.getInt();
+            if (n < 0 || buf.remaining() != (long) n * ENTRY_BYTES) {
+                throw error("%s is truncated", file);
+            }
+            ids = new byte[n * PackIndex.ID_BYTES];
+            firstParents = new int[n];
+            secondParents = new int[n];
+            timestamps = new long[n];
+            generations = new int[n];
+            buf.get(ids);
+            buf.asIntBuffer().get(firstParents);
+            buf.position(buf.position() + 4 * n);
+            buf.asIntBuffer().get(secondParents);
+            buf.position(buf.position() + 4 * n);
+            buf.asLongBuffer().get(timestamps);
+            buf.position(buf.position() + 8 * n);
+            buf.asIntBuffer().get(generations);
+        } catch (IOException | BufferUnderflowException excp) {
+            throw new IllegalArgumentException("cannot read " + file);
+        }
+    }
+
+    /** A graph of the arrays made by a Builder. */
+    private CommitGraph(byte[] ids, int[] firstParents, int[] secondParents,
+                        long[] timestamps, int[] generations) {
+        this.ids = ids;
+        this.firstParents = firstParents;
+        this.secondParents = secondParents;
+        this.timestamps = timestamps;
+        this.generations = generations;
+    }
+
+    /** Returns the number of commits. */
+    int size() {
+        return generations.length;
+    }
+
+    /** Returns the position of commit ID, or -1 if it is not in the
+     *  graph. */
+    int position(String id) {
+        if (id.length() != UID_LENGTH) {
+            return -1;
+        }
+        byte[] key = Pack.fromHex(id);
+        int lo = 0, hi = size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = compare(mid, key);
+            if (c < 0) {
+                lo = mid + 1;
+            } else if (c > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /** Returns the id of the commit at position P. */
+    String id(int p) {
+        return toHex(Arrays.copyOfRange(ids, p * PackIndex.ID_BYTES,
+                                        (p + 1) * PackIndex.ID_BYTES));
+    }
+
+    /** Returns the position of the first parent of the commit at P, or -1
+     *  if it has none. */
+    int firstParent(int p) {
+        return firstParents[p];
+    }
+
+    /** Returns the position of the second parent of the commit at P, or
+     *  -1 if it has none. */
+    int secondParent(int p) {
+        return secondParents[p];
+    }
+
+    /** Returns the timestamp of the commit at P. */
+    long timestamp(int p) {
+        return timestamps[p];
+    }
+
+    /** Returns the generation of the commit at P. */
+    int generation(int p) {
+        return generations[p];
+    }
+
+    /* ANCESTRY */
+
+    /** Returns true iff the commit at A is the commit at B or one of its
+     *  ancestors.  The search from B skips every commit whose generation
+     *  is below A's, since A cannot be reached through it. */
+    boolean isAncestor(int a, int b) {
+        int bound = generations[a];
+        boolean[] seen = new boolean[size()];
+        int[] stack = new int[size()];
+        int top = 0;
+        stack[top++] = b;
+        seen[b] = true;
+        while (top > 0) {
+            int p = stack[--top];
+            if (p == a) {
+                return true;
+            }
+            for (int k = 0; k < 2; k += 1) {
+                int q = k == 0 ? firstParents[p] : secondParents[p];
+                if (q >= 0 && !seen[q] && generations[q] >= bound) {
+                    seen[q] = true;
+                    stack[top++] = q;
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Returns the position of a latest common ancestor of the commits at
+     *  A and B: one that is not an ancestor of any other common ancestor.
+     *  This is the split point of a merge of A and B.  Returns -1 if they
+     *  have no common ancestor.
+     *
+     *  Commits are visited in decreasing order of generation, marked with
+     *  which of A and B reach them.  Every child of a commit has a higher
+     *  generation, so a commit's marks are complete by the time it is
+     *  visited, and the first one visited with both marks is the
+     *  answer.  No commit of lower generation than the answer is
+     *  visited. */
+    int splitPoint(int a, int b) {
+        byte[] marks = new byte[size()];
+        IntHeap queue = new IntHeap();
+        marks[a] |= FROM_A;
+        marks[b] |= FROM_B;
+        queue.add(a);
+        if (b != a) {
+            queue.add(b);
+        }
+        while (!queue.isEmpty()) {
+            int p = queue.remove();
+            if (marks[p] == (FROM_A | FROM_B)) {
+                return p;
+            }
+            for (int k = 0; k < 2; k += 1) {
+                int q = k == 0 ? firstParents[p] : secondParents[p];
+                if (q >= 0) {
+                    if (marks[q] == 0) {
+                        queue.add(q);
+                    }
+                    marks[q] |= marks[p];
+                }
+            }
+        }
+        return -1;
+    }
+
+    /** Returns the id of a latest common ancestor of commits A and B, as
+     *  for splitPoint.  Throws GitletException if either is not in the
+     *  graph or they have none. */
+    String splitPoint(String a, String b) {
+        int pa = position(a), pb = position(b);
+        if (pa < 0 || pb < 0) {
+            throw error("No commit with that id exists.");
+        }
+        int p = splitPoint(pa, pb);
+        if (p < 0) {
+            throw error("Commits %s and %s have no common ancestor.", a, b);
+        }
+        return id(p);
+    }
+
+    /** Compares the id at position P with the 20-byte KEY. */
+    private int compare(int p, byte[] key) {
+        int base = p * PackIndex.ID_BYTES;
+        for (int k = 0; k < key.length; k += 1) {
+            int c = (ids[base + k] & 0xff) - (key[k] & 0xff);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    /** A priority queue of positions, highest generation first, and of
+     *  equal generations, latest timestamp first. */
+    private class IntHeap {
+        /** Returns true iff the queue is empty. */
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        /** Adds position P. */
+        void add(int p) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            int i = size;
+            size += 1;
+            while (i > 0 && before(p, heap[(i - 1) / 2])) {
+                heap[i] = heap[(i - 1) / 2];
+                i = (i - 1) / 2;
+            }
+            heap[i] = p;
+        }
+
+        /** Removes and returns the first position. */
+        int remove() {
+            int result = heap[0];
+            size -= 1;
+            int last = heap[size];
+            int i = 0;
+            while (2 * i + 1 < size) {
+                int c = 2 * i + 1;
+                if (c + 1 < size && before(heap[c + 1], heap[c])) {
+                    c += 1;
+                }
+                if (!before(heap[c], last)) {
+                    break;
+                }
+                heap[i] = heap[c];
+                i = c;
+            }
+            heap[i] = last;
+            return result;
+        }
+
+        /** Returns true iff position P comes before position Q. */
+        private boolean before(int p, int q) {
+            if (generations[p] != generations[q]) {
+                return generations[p] > generations[q];
+            }
+            return timestamps[p] > timestamps[q];
+        }
+
+        /** The heap-ordered positions. */
+        private int[] heap = new int[16];
+        /** Number of positions in HEAP. */
+        private int size;
+    }
+
+    /* BUILDING */
+
+    /** Collects commits and writes them as a graph.  Commits may be added
+     *  in any order, but every parent must have been added by the time
+     *  the graph is built. */
+    static class Builder {
+
+        /** An empty builder. */
+        Builder() {
+        }
+
+        /** A builder holding all the commits of GRAPH, so that new commits
+         *  can be added to it. */
+        Builder(CommitGraph graph) {
+            for (int p = 0; p < graph.size(); p += 1) {
+                int p1 = graph.firstParent(p), p2 = graph.secondParent(p);
+                add(graph.id(p), graph.timestamp(p),
+                    p1 < 0 ? null : graph.id(p1), p2 < 0 ? null : graph.id(p2));
+            }
+        }
+
+        /** Adds commit ID, made at TIMESTAMP, with parents FIRSTPARENT and
+         *  SECONDPARENT, either of which may be null. */
+        void add(String id, long timestamp, String firstParent, String secondParent) {
+            commits.put(id, new String[] { firstParent, secondParent });
+            times.put(id, timestamp);
+        }
+
+        /** Returns the graph of the commits added so far. */
+        CommitGraph build() {
+            int n = commits.size();
+            HashMap<String, Integer> positions = new HashMap<>(n * 2);
+            byte[] ids = new byte[n * PackIndex.ID_BYTES];
+            int[] firstParents = new int[n];
+            int[] secondParents = new int[n];
+            long[] timestamps = new long[n];
+            int p = 0;
+            for (String id : commits.keySet()) {
+                positions.put(id, p);
+                System.arraycopy(Pack.fromHex(id), 0, ids, p * PackIndex.ID_BYTES,
+                                 PackIndex.ID_BYTES);
+                timestamps[p] = times.get(id);
+                p += 1;
+            }
+            p = 0;
+            for (String[] parents : commits.values()) {
+                firstParents[p] = position(positions, parents[0]);
+                secondParents[p] = position(positions, parents[1]);
+                p += 1;
+            }
+            return new CommitGraph(ids, firstParents, secondParents, timestamps,
+                                   generations(firstParents, secondParents));
+        }
+
+        /** Writes the graph of the commits added so far to FILE. */
+        void write(File file) {
+            CommitGraph g = build();
+            int n = g.size();
+            File temp = new File(file.getPath() + ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(
+                         new BufferedOutputStream(new FileOutputStream(temp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeInt(n);
+                    out.write(g.ids);
+                    for (int p = 0; p < n; p += 1) {
+                        out.writeInt(g.firstParents[p]);
+                    }
+                    for (int p = 0; p < n; p += 1) {
+                        out.writeInt(g.secondParents[p]);
+                    }
+                    for (int p = 0; p < n; p += 1) {
+                        out.writeLong(g.timestamps[p]);
+                    }
+                    for (int p = 0; p < n; p += 1) {
+                        out.writeInt(g.generations[p]);
+                    }
+                }
+                Files.move(temp.toPath(), file.toPath(),
+                           StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException excp) {
+                throw new IllegalArgumentException(excp.getMessage());
+            }
+        }
+
+        /** Returns the position in POSITIONS of the parent ID, or -1 if ID
+         *  is null. */
+        private static int position(HashMap<String, Integer> positions, String id) {
+            if (id == null) {
+                return -1;
+            }
+            Integer p = positions.get(id);
+            if (p == null) {
+                throw error("Parent %s was not added to the commit graph.", id);
+            }
+            return p;
+        }
+
+        /** Returns the generation of each commit of the graph with the
+         *  given parents, visiting parents before children with an
+         *  explicit stack, so that long histories cannot overflow the
+         *  call stack. */
+        private static int[] generations(int[] firstParents, int[] secondParents) {
+            int n = firstParents.length;
+            int[] generations = new int[n];
+            int[] stack = new int[n];
+            for (int start = 0; start < n; start += 1) {
+                if (generations[start] != 0) {
+                    continue;
+                }
+                int top = 0;
+                stack[top++] = start;
+                while (top > 0) {
+                    int p = stack[top - 1];
+                    int p1 = firstParents[p], p2 = secondParents[p];
+                    if (p1 >= 0 && generations[p1] == 0) {
+                        stack[top++] = p1;
+                    } else if (p2 >= 0 && generations[p2] == 0) {
+                        stack[top++] = p2;
+                    } else {
+                        int g = 0;
+                        if (p1 >= 0) {
+                            g = generations[p1];
+                        }
+                        if (p2 >= 0) {
+                            g = Math.max(g, generations[p2]);
+                        }
+                        generations[p] = g + 1;
+                        top -= 1;
+                    }
+                }
+            }
+            return generations;
+        }
+
+        /** Parents of each commit added, in order of id. */
+        private final TreeMap<String, String[]> commits = new TreeMap<>();
+        /** Timestamp of each commit added. */
+        private final HashMap<String, Long> times = new HashMap<>();
+    }
+
+    /** Marks for splitPoint. */
+    private static final byte FROM_A = 1, FROM_B = 2;
+    /** Magic number and version at the start of the file. */
+    private static final int MAGIC = 0x43475048, VERSION = 1;
+    /** Bytes of the file per commit: id, parents, timestamp and
+     *  generation. */
+    private static final int ENTRY_BYTES = PackIndex.ID_BYTES + 4 + 4 + 8 + 4;
+
+    /** Ids, PackIndex.ID_BYTES bytes each, in increasing order. */
+    private final byte[] ids;
+    /** Positions of the parents of each commit, or -1. */
+    private final int[] firstParents, secondParents;
+    /** Timestamp of each commit. */
+    private final long[] timestamps;
+    /** Generation of each commit. */
+    private final int[] generations;
+}
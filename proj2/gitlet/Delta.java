@@ -0,0 +1,164 @@
+package gitlet;
+
+import java.io.ByteArrayOutputStream;
+
+/** Binary deltas between two byte arrays.  A delta describes a TARGET as
+ *  a sequence of instructions that either copy a run of bytes from a BASE
+ *  or insert literal bytes, so that a new version of a file can be stored
+ *  as the handful of bytes in which it differs from an old one.
+ *
+ *  A delta begins with the lengths of the base and of the result, each as
+ *  a variable-length integer, followed by instructions.  An instruction is
+ *  a byte COPY followed by an offset and a length, or a byte INSERT
+ *  followed by a length and that many literal bytes. */
+class Delta {
+
+    /** Number of bytes in the blocks of the base that are indexed.  A
+     *  match must be at least this long to be found. */
+    private static final int BLOCK = 16;
+
+    /** Instruction codes. */
+    private static final int COPY = 1, INSERT = 0;
+
+    /** Returns a delta that turns BASE into TARGET.  The base is indexed
+     *  at every BLOCK-aligned offset, and the target is scanned one byte at
+     *  a time for a block that matches; each match is extended forward as
+     *  far as it goes. */
+    static byte[] create(byte[] base, byte[] target) {
+        int[] blocks = indexBlocks(base);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeVarint(out, base.length);
+        writeVarint(out, target.length);
+        int literalStart = 0;
+        int i = 0;
+        while (i + BLOCK <= target.length) {
+            int candidate = blocks[slot(blocks, hash(target, i)) + 1] - 1;
+            int len = 0;
+            if (candidate >= 0) {
+                int b = candidate;
+                while (b + len < base.length && i + len < target.length
+                       && base[b + len] == target[i + len]) {
+                    len += 1;
+                }
+            }
+            if (len < BLOCK) {
+                i += 1;
+                continue;
+            }
+            writeInsert(out, target, literalStart, i);
+            out.write(COPY);
+            writeVarint(out, candidate);
+            writeVarint(out, len);
+            i += len;
+            literalStart = i;
+        }
+        writeInsert(out, target, literalStart, target.length);
+        return out.toByteArray();
+    }
+
+    /** Returns the result of applying DELTA to BASE.  Throws
+     *  GitletException if DELTA was not made against BASE. */
+    static byte[] apply(byte[] base, byte[] delta) {
+        int[] pos = { 0 };
+        if (readVarint(delta, pos) != base.length) {
+            throw Utils.error("delta does not match its base");
+        }
+        byte[] result = new byte[readVarint(delta, pos)];
+        int n = 0;
+        while (pos[0] < delta.length) {
+            int op = delta[pos[0]++];
+            if (op == COPY) {
+                int offset = readVarint(delta, pos);
+                int len = readVarint(delta, pos);
+                System.arraycopy(base, offset, result, n, len);
+                n += len;
+            } else {
+                int len = readVarint(delta, pos);
+                System.arraycopy(delta, pos[0], result, n, len);
+                pos[0] += len;
+                n += len;
+            }
+        }
+        if (n != result.length) {
+            throw Utils.error("corrupt delta");
+        }
+        return result;
+    }
+
+    /** Writes an INSERT of DATA[FROM .. TO) to OUT, if that is not empty. */
+    private static void writeInsert(ByteArrayOutputStream out, byte[] data,
+                                    int from, int to) {
+        if (from < to) {
+            out.write(INSERT);
+            writeVarint(out, to - from);
+            out.write(data, from, to - from);
+        }
+    }
+
+    /** Returns an open-addressed table of the BLOCK-aligned blocks of
+     *  BASE, as pairs of ints: the hash of a block and one more than its
+     *  offset, or two zeros for an empty pair.  Of blocks with equal
+     *  hashes, the first is kept.  The table is at most half full and
+     *  takes 16 bytes per block of BASE, where a HashMap of boxed
+     *  Integers would take several times that. */
+    private static int[] indexBlocks(byte[] base) {
+        int pairs = 2;
+        while (pairs < 2 * (base.length / BLOCK)) {
+            pairs <<= 1;
+        }
+        int[] table = new int[2 * pairs];
+        for (int i = 0; i + BLOCK <= base.length; i += BLOCK) {
+            int h = hash(base, i);
+            int s = slot(table, h);
+            if (table[s + 1] == 0) {
+                table[s] = h;
+                table[s + 1] = i + 1;
+            }
+        }
+        return table;
+    }
+
+    /** Returns the position in TABLE, as made by indexBlocks, of the pair
+     *  for hash H: the one holding H, or the empty one where H would go. */
+    private static int slot(int[] table, int h) {
+        int mask = table.length / 2 - 1;
+        int x = h * 0x9E3779B9;
+        int s = (x ^ (x >>> 16)) & mask;
+        while (table[2 * s + 1] != 0 && table[2 * s] != h) {
+            s = (s + 1) & mask;
+        }
+        return 2 * s;
+    }
+
+    /** Returns a hash of the BLOCK bytes of DATA starting at START. */
+    private static int hash(byte[] data, int start) {
+        int h = 0;
+        for (int k = start; k < start + BLOCK; k += 1) {
+            h = 31 * h + data[k];
+        }
+        return h;
+    }
+
+    /** Writes the non-negative N to OUT seven bits at a time, low bits
+     *  first, with the high bit of each byte set if more follow. */
+    static void writeVarint(ByteArrayOutputStream out, int n) {
+        while ((n & ~0x7f) != 0) {
+            out.write((n & 0x7f) | 0x80);
+            n >>>= 7;
+        }
+        out.write(n);
+    }
+
+    /** Reads a number written by writeVarint from DATA at POS[0], and
+     *  advances POS[0] past it. */
+    static int readVarint(byte[] data, int[] pos) {
+        int n = 0;
+        for (int shift = 0;; shift += 7) {
+            int b = data[pos[0]++];
+            n |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return n;
+            }
+        }
+    }
+}
@@ -18,6 +18,10 @@ public class Main {
             case "add":
                 // TODO: handle the `add [filename]` command
                 break;
+            case "gc":
+            case "repack":
+                Repository.gc();
+                break;
             // TODO: FILL THE REST IN
         }
     }
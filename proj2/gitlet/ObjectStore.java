@@ -0,0 +1,395 @@
+package gitlet;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import static gitlet.Utils.*;
+
+/** The content-addressed store of blobs and commits in a .gitlet
+ *  directory.  Each object is named by the SHA-1 of its contents.
+ *
+ *  New objects are written loose, one file per object, holding the
+ *  length of the object as 8 bytes followed by the object, deflated.  As
+ *  in Git, object ID is objects/XX/YYYY..., where XX is the first two
+ *  digits of ID and YYYY... the rest, so no directory grows too large to
+ *  list cheaply.  gc() moves every object into a single Pack in packs/, so
+ *  that a repository with a long history is a handful of large files
+ *  instead of one small file per version of everything ever committed.
+ *  Reads look at the loose objects first and then in each pack.
+ *
+ *  Existence checks and abbreviated ids are answered from the packs'
+ *  memory-mapped PackIndexes by binary search, and from at most one
+ *  directory of loose objects per two-digit prefix.
+ *
+ *  putFile and writeTo move file contents into and out of the store a
+ *  buffer at a time, so adding or checking out a file takes the same
+ *  memory whatever its size.  Objects too large to handle as byte arrays
+ *  stay loose when the store is packed.
+ *
+ *  contains and putFile may be called from several threads at once. */
+class ObjectStore {
+
+    /** Objects longer than this are left loose by gc(). */
+    static final long MAX_PACKED = 1 << 26;
+
+    /** The store kept in the .gitlet directory GITLETDIR. */
+    ObjectStore(File gitletDir) {
+        objectsDir = join(gitletDir, "objects");
+        packsDir = join(gitletDir, "packs");
+    }
+
+    /** Adds an object with the given CONTENTS, if there is none already,
+     *  and returns its id. */
+    String put(byte[] contents) {
+        String id = sha1(contents);
+        if (!contains(id)) {
+            File loose = loose(id);
+            loose.getParentFile().mkdirs();
+            File temp = join(loose.getParentFile(), "tmp-" + id);
+            writeContents(temp, ByteBuffer.allocate(8).putLong(contents.length).array(),
+                          Pack.deflate(contents));
+            try {
+                Files.move(temp.toPath(), loose.toPath(),
+                           StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException excp) {
+                throw new IllegalArgumentException(excp.getMessage());
+            }
+        }
+        return id;
+    }
+
+    /** Adds the contents of FILE as an object, if there is none already,
+     *  and returns its id.  FILE is read once: FileChannel.transferTo
+     *  moves its bytes into a stream that hashes them and deflates them
+     *  into a temporary file, which becomes the loose object once the id
+     *  is known.  The temporary file is removed if it is not needed or
+     *  anything fails. */
+    String putFile(File file) {
+        objectsDir.mkdirs();
+        MessageDigest md = sha1Digest();
+        File temp;
+        try {
+            temp = File.createTempFile("tmp-", "", objectsDir);
+        } catch (IOException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        }
+        boolean moved = false;
+        try {
+            Deflater deflater = new Deflater();
+            try (FileChannel in = FileChannel.open(file.toPath(),
+                                                   StandardOpenOption.READ);
+                 FileOutputStream raw = new FileOutputStream(temp)) {
+                long length = in.size();
+                raw.write(ByteBuffer.allocate(8).putLong(length).array());
+                try (WritableByteChannel out = Channels.newChannel(
+                         new DigestOutputStream(
+                             new DeflaterOutputStream(raw, deflater,
+                                                      STREAM_BUFFER_SIZE),
+                             md))) {
+                    long done = 0;
+                    while (done < length) {
+                        long n = in.transferTo(done, length - done, out);
+                        if (n <= 0) {
+                            throw new IOException(file + " changed while being added");
+                        }
+                        done += n;
+                    }
+                }
+            } finally {
+                deflater.end();
+            }
+            String id = toHex(md.digest());
+            if (!contains(id)) {
+                File loose = loose(id);
+                loose.getParentFile().mkdirs();
+                Files.move(temp.toPath(), loose.toPath(),
+                           StandardCopyOption.REPLACE_EXISTING);
+                moved = true;
+            }
+            return id;
+        } catch (IOException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        } finally {
+            if (!moved) {
+                temp.delete();
+            }
+        }
+    }
+
+    /** Writes the contents of object ID to FILE, creating or overwriting
+     *  it.  A loose object is inflated straight into FILE with
+     *  FileChannel.transferFrom.  Throws GitletException if there is no
+     *  such object. */
+    void writeTo(String id, File file) {
+        File loose = loose(id);
+        if (!loose.isFile()) {
+            writeContents(file, get(id));
+            return;
+        }
+        try (DataInputStream header = new DataInputStream(new FileInputStream(loose));
+             InputStream in = new InflaterInputStream(header);
+             ReadableByteChannel src = Channels.newChannel(in);
+             FileChannel out = FileChannel.open(file.toPath(),
+                                                StandardOpenOption.CREATE,
+                                                StandardOpenOption.WRITE,
+                                                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long length = header.readLong();
+            long done = 0;
+            while (done < length) {
+                long n = out.transferFrom(src, done, length - done);
+                if (n <= 0) {
+                    throw error("Object %s is truncated.", id);
+                }
+                done += n;
+            }
+        } catch (IOException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        }
+    }
+
+    /** Returns true iff there is an object ID. */
+    boolean contains(String id) {
+        if (id.length() != UID_LENGTH || !isHex(id)) {
+            return false;
+        }
+        if (loose(id).isFile()) {
+            return true;
+        }
+        for (Pack pack : packs()) {
+            if (pack.contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Returns the contents of object ID.  Throws GitletException if
+     *  there is no such object. */
+    byte[] get(String id) {
+        File loose = loose(id);
+        if (loose.isFile()) {
+            byte[] stored = readContents(loose);
+            int length = (int) ByteBuffer.wrap(stored, 0, 8).getLong();
+            return Pack.inflate(Arrays.copyOfRange(stored, 8, stored.length),
+                                length);
+        }
+        for (Pack pack : packs()) {
+            byte[] contents = pack.get(id);
+            if (contents != null) {
+                return contents;
+            }
+        }
+        throw error("No object with id %s exists.", id);
+    }
+
+    /** Returns the length of object ID, reading only its header. */
+    private long length(String id) {
+        File loose = loose(id);
+        if (loose.isFile()) {
+            try (DataInputStream in = new DataInputStream(new FileInputStream(loose))) {
+                return in.readLong();
+            } catch (IOException excp) {
+                throw new IllegalArgumentException(excp.getMessage());
+            }
+        }
+        for (Pack pack : packs()) {
+            int length = pack.length(id);
+            if (length >= 0) {
+                return length;
+            }
+        }
+        throw error("No object with id %s exists.", id);
+    }
+
+    /** Returns the id that PREFIX, a hexadecimal numeral, abbreviates, or
+     *  null if it abbreviates none.  Throws GitletException if it
+     *  abbreviates more than one. */
+    String resolvePrefix(String prefix) {
+        prefix = prefix.toLowerCase();
+        if (prefix.isEmpty() || prefix.length() > UID_LENGTH || !isHex(prefix)) {
+            return null;
+        }
+        if (prefix.length() == UID_LENGTH) {
+            return contains(prefix) ? prefix : null;
+        }
+        List<String> found = new ArrayList<>(2);
+        for (Pack pack : packs()) {
+            pack.index().resolvePrefix(prefix, found, 2);
+        }
+        if (found.size() < 2) {
+            for (String shard : shards(prefix)) {
+                List<String> names = plainFilenamesIn(join(objectsDir, shard));
+                if (names == null) {
+                    continue;
+                }
+                for (String name : names) {
+                    String id = shard + name;
+                    if (id.length() == UID_LENGTH && id.startsWith(prefix)
+                        && !found.contains(id)) {
+                        found.add(id);
+                    }
+                }
+            }
+        }
+        if (found.size() > 1) {
+            throw error("Ambiguous id %s.", prefix);
+        }
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    /** Returns the file holding loose object ID. */
+    private File loose(String id) {
+        return join(objectsDir, id.substring(0, 2), id.substring(2));
+    }
+
+    /** Returns the names of the loose object directories that may hold ids
+     *  starting with PREFIX. */
+    private static List<String> shards(String prefix) {
+        List<String> result = new ArrayList<>();
+        if (prefix.length() >= 2) {
+            result.add(prefix.substring(0, 2));
+        } else {
+            for (int d = 0; d < 16; d += 1) {
+                result.add(prefix + Character.forDigit(d, 16));
+            }
+        }
+        return result;
+    }
+
+    /** Returns true iff S consists of lower-case hexadecimal digits. */
+    private static boolean isHex(String s) {
+        for (int i = 0; i < s.length(); i += 1) {
+            char c = s.charAt(i);
+            if (!(c >= '0' && c <= '9' || c >= 'a' && c <= 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Returns the ids of the loose objects. */
+    private List<String> looseIds() {
+        List<String> result = new ArrayList<>();
+        for (int b = 0; b < 256; b += 1) {
+            String shard = String.format("%02x", b);
+            List<String> names = plainFilenamesIn(join(objectsDir, shard));
+            if (names == null) {
+                continue;
+            }
+            for (String name : names) {
+                if (name.length() == UID_LENGTH - 2 && isHex(name)) {
+                    result.add(shard + name);
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Returns the packs, opening them the first time. */
+    private synchronized List<Pack> packs() {
+        if (packs == null) {
+            packs = new ArrayList<>();
+            List<String> names = plainFilenamesIn(packsDir);
+            if (names != null) {
+                for (String name : names) {
+                    if (name.startsWith("pack-") && name.endsWith(".pack")
+                        && Pack.indexFile(join(packsDir, name)).isFile()) {
+                        packs.add(new Pack(join(packsDir, name)));
+                    }
+                }
+            }
+        }
+        return packs;
+    }
+
+    /** Consolidates all loose objects and all packs into one new pack, and
+     *  removes what it replaces.  Loose objects longer than MAX_PACKED
+     *  are left as they are.  Objects are written largest first, so
+     *  that versions of the same file, which tend to have similar sizes,
+     *  fall within one another's delta window.  Returns a summary of what
+     *  was done. */
+    String gc() {
+        HashMap<String, Long> lengths = new HashMap<>();
+        List<String> loose = new ArrayList<>();
+        for (String id : looseIds()) {
+            long length = length(id);
+            if (length <= MAX_PACKED) {
+                loose.add(id);
+                lengths.put(id, length);
+            }
+        }
+        for (Pack pack : packs()) {
+            for (String id : pack.index()) {
+                if (!lengths.containsKey(id)) {
+                    lengths.put(id, (long) pack.length(id));
+                }
+            }
+        }
+        if (lengths.isEmpty()) {
+            return "Nothing to pack.";
+        }
+        List<String> ids = new ArrayList<>(lengths.keySet());
+        ids.sort(Comparator.comparing((String id) -> lengths.get(id)).reversed()
+                 .thenComparing(Comparator.naturalOrder()));
+
+        packsDir.mkdirs();
+        File packFile;
+        int deltas;
+        try (Pack.Writer writer = new Pack.Writer(packsDir, ids.size())) {
+            for (String id : ids) {
+                writer.add(id, get(id));
+            }
+            packFile = writer.finish();
+            deltas = writer.deltas();
+        } catch (IOException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        }
+
+        int oldPacks = 0;
+        for (Pack pack : packs()) {
+            pack.close();
+            if (!pack.file().equals(packFile)) {
+                Pack.indexFile(pack.file()).delete();
+                pack.file().delete();
+                oldPacks += 1;
+            }
+        }
+        packs = null;
+        for (String id : loose) {
+            loose(id).delete();
+            loose(id).getParentFile().delete();
+        }
+        return String.format("Packed %d objects (%d as deltas) from %d loose "
+                             + "objects and %d packs into %s.", ids.size(), deltas,
+                             loose.size(), oldPacks, packFile.getName());
+    }
+
+    /** Directory of loose objects. */
+    private final File objectsDir;
+    /** Directory of packs. */
+    private final File packsDir;
+    /** The open packs, or null if they have not been opened yet. */
+    private List<Pack> packs;
+}
@@ -0,0 +1,399 @@
+package gitlet;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/** A read-only segment file holding many objects, together with an index
+ *  from object ids to their offsets in it.  Storing objects this way
+ *  costs one open file per pack rather than one per object, which is what
+ *  makes reading many objects (as checkout and log do) cheap.
+ *
+ *  A pack file pack-ID.pack starts with the magic number "PACK", a
+ *  version and the number of entries.  Each entry is a type byte, the
+ *  length of the object, the lengths of its data before and after
+ *  deflation and, for a DELTA entry, the offset of its base entry in the
+ *  same pack, followed by the deflated data.  For a WHOLE entry the data
+ *  are the object itself; for a DELTA entry they are a Delta against the
+ *  base.
+ *
+ *  The PackIndex pack-ID.idx maps ids to entry offsets.  ID is the SHA-1
+ *  of the ids in the pack. */
+class Pack implements Closeable {
+
+    /** Entry types. */
+    static final byte WHOLE = 0, DELTA = 1;
+
+    /** Bytes in an entry header, not counting the base offset. */
+    private static final int ENTRY_HEADER = 13;
+    /** Bytes in the pack file header. */
+    private static final int PACK_HEADER = 12;
+    /** Number of recently read objects kept to serve as delta bases. */
+    private static final int BASE_CACHE = 16;
+    /** Objects larger than this are not cached. */
+    private static final int MAX_CACHED = 1 << 20;
+
+    /** A pack read from FILE, whose index is alongside it. */
+    Pack(File file) {
+        this.file = file;
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            ByteBuffer header = readFully(0, PACK_HEADER);
+            if (header.getInt() != PACK_MAGIC || header.getInt() != VERSION) {
+                throw Utils.error("%s is not a pack", file);
+            }
+            index = new PackIndex(indexFile(file));
+        } catch (IOException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        }
+    }
+
+    /** Returns the file this pack was read from. */
+    File file() {
+        return file;
+    }
+
+    /** Returns the number of objects in this pack. */
+    int size() {
+        return index.size();
+    }
+
+    /** Returns the index of this pack. */
+    PackIndex index() {
+        return index;
+    }
+
+    /** Returns true iff this pack holds the object ID. */
+    boolean contains(String id) {
+        return index.contains(id);
+    }
+
+    /** Returns the contents of the object ID, or null if it is not in this
+     *  pack.  The result is the caller's own copy. */
+    byte[] get(String id) {
+        long offset = index.offset(id);
+        return offset < 0 ? null : read(offset).clone();
+    }
+
+    /** Returns the length of object ID, or -1 if it is not in this pack.
+     *  Only the entry's header is read. */
+    int length(String id) {
+        long offset = index.offset(id);
+        if (offset < 0) {
+            return -1;
+        }
+        try {
+            return readFully(offset, ENTRY_HEADER).getInt(1);
+        } catch (IOException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        }
+    }
+
+    /** Returns the object whose entry is at OFFSET, resolving deltas.  The
+     *  result may be shared with the base cache, so it must not be
+     *  modified. */
+    private byte[] read(long offset) {
+        byte[] cached = bases.get(offset);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            ByteBuffer header = readFully(offset, ENTRY_HEADER);
+            byte type = header.get();
+            int length = header.getInt();
+            int inflated = header.getInt();
+            int stored = header.getInt();
+            long dataOffset = offset + ENTRY_HEADER;
+            long baseOffset = -1;
+            if (type == DELTA) {
+                baseOffset = readFully(dataOffset, 8).getLong();
+                dataOffset += 8;
+            }
+            byte[] data = inflate(readFully(dataOffset, stored).array(), inflated);
+            byte[] result = type == DELTA ? Delta.apply(read(baseOffset), data) : data;
+            if (result.length != length) {
+                throw Utils.error("corrupt entry at %d in %s", offset, file);
+            }
+            if (length <= MAX_CACHED) {
+                bases.put(offset, result);
+            }
+            return result;
+        } catch (IOException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        }
+    }
+
+    /** Returns the N bytes at POSITION in this pack, ready for reading. */
+    private ByteBuffer readFully(long position, int n) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(n);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, position + buf.position()) < 0) {
+                throw new IOException("truncated pack " + file);
+            }
+        }
+        buf.flip();
+        return buf;
+    }
+
+    /** Returns the index file that goes with PACKFILE. */
+    static File indexFile(File packFile) {
+        String name = packFile.getName();
+        return new File(packFile.getParentFile(),
+                        name.substring(0, name.length() - ".pack".length())
+                        + ".idx");
+    }
+
+    /* ID CONVERSION */
+
+    /** Returns the 20 bytes denoted by the 40-digit hexadecimal ID. */
+    static byte[] fromHex(String id) {
+        byte[] result = new byte[id.length() / 2];
+        for (int i = 0; i < result.length; i += 1) {
+            result[i] = (byte) Integer.parseInt(id.substring(2 * i, 2 * i + 2), 16);
+        }
+        return result;
+    }
+
+    /* COMPRESSION */
+
+    /** Returns DATA, deflated. */
+    static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater();
+        deflater.setInput(data);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 16);
+        byte[] buf = new byte[8192];
+        while (!deflater.finished()) {
+            out.write(buf, 0, deflater.deflate(buf));
+        }
+        deflater.end();
+        return out.toByteArray();
+    }
+
+    /** Returns DATA inflated, which must come to exactly LENGTH bytes. */
+    static byte[] inflate(byte[] data, int length) {
+        Inflater inflater = new Inflater();
+        inflater.setInput(data);
+        byte[] result = new byte[length];
+        try {
+            int n = 0;
+            while (n < length) {
+                int k = inflater.inflate(result, n, length - n);
+                if (k == 0 && (inflater.finished() || inflater.needsInput()
+                               || inflater.needsDictionary())) {
+                    throw Utils.error("truncated compressed data");
+                }
+                n += k;
+            }
+            return result;
+        } catch (DataFormatException excp) {
+            throw Utils.error("corrupt compressed data");
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /* WRITING */
+
+    /** Writes a new pack into a directory.  Objects are added one at a
+     *  time and written as they come, so only the last WINDOW of them, and
+     *  no more than WINDOW_BYTES of them in all, are held in memory.  Each
+     *  is stored as a delta against whichever of those gives the smallest
+     *  delta, provided that is less than half the size of the object and
+     *  the base is not itself at the end of a chain of MAX_DEPTH deltas.
+     *  Adding objects in order of decreasing size puts similar versions of
+     *  a file next to each other and makes the larger (usually the newer)
+     *  one the base.
+     *
+     *  Objects longer than MAX_DELTA_SIZE are stored whole and are not
+     *  kept as bases, so packing a few large files costs neither the time
+     *  to search for their deltas nor the memory to hold them. */
+    static class Writer implements Closeable {
+
+        /** Number of preceding objects tried as delta bases. */
+        static final int WINDOW = 10;
+        /** Longest chain of deltas to be resolved when reading an object. */
+        static final int MAX_DEPTH = 10;
+        /** Objects smaller than this are never stored as deltas. */
+        static final int MIN_DELTA_SIZE = 64;
+        /** Objects larger than this are neither stored as deltas nor used
+         *  as delta bases. */
+        static final int MAX_DELTA_SIZE = 1 << 20;
+        /** Most bytes of preceding objects held as delta bases. */
+        static final long WINDOW_BYTES = 4 << 20;
+
+        /** A writer for a pack of COUNT objects in directory DIR. */
+        Writer(File dir, int count) throws IOException {
+            this.dir = dir;
+            this.count = count;
+            temp = File.createTempFile("tmp-pack-", ".pack", dir);
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            out.writeInt(PACK_MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(count);
+            position = PACK_HEADER;
+        }
+
+        /** Adds object ID with the given CONTENTS to the pack. */
+        void add(String id, byte[] contents) throws IOException {
+            if (offsets.size() == count) {
+                throw new IllegalStateException("pack is full");
+            }
+            if (offsets.containsKey(id)) {
+                return;
+            }
+            Recent best = null;
+            byte[] bestDelta = null;
+            boolean deltify = contents.length >= MIN_DELTA_SIZE
+                && contents.length <= MAX_DELTA_SIZE;
+            if (deltify) {
+                for (Recent r : window) {
+                    if (r.depth >= MAX_DEPTH) {
+                        continue;
+                    }
+                    byte[] delta = Delta.create(r.contents, contents);
+                    if (delta.length < contents.length / 2
+                        && (bestDelta == null || delta.length < bestDelta.length)) {
+                        best = r;
+                        bestDelta = delta;
+                    }
+                }
+            }
+            offsets.put(id, position);
+            byte[] data = bestDelta == null ? contents : bestDelta;
+            byte[] stored = deflate(data);
+            out.writeByte(best == null ? WHOLE : DELTA);
+            out.writeInt(contents.length);
+            out.writeInt(data.length);
+            out.writeInt(stored.length);
+            if (best != null) {
+                out.writeLong(best.offset);
+            }
+            out.write(stored);
+            if (deltify) {
+                window.add(new Recent(contents, position, best == null ? 0 : best.depth + 1));
+                windowBytes += contents.length;
+                while (window.size() > WINDOW || windowBytes > WINDOW_BYTES) {
+                    windowBytes -= window.remove(0).contents.length;
+                }
+            }
+            position += ENTRY_HEADER + (best == null ? 0 : 8) + stored.length;
+            if (best != null) {
+                deltas += 1;
+            }
+        }
+
+        /** Returns the number of objects so far stored as deltas. */
+        int deltas() {
+            return deltas;
+        }
+
+        /** Finishes the pack and its index, gives them their final names
+         *  and returns the pack file. */
+        File finish() throws IOException {
+            if (offsets.size() != count) {
+                throw new IllegalStateException("expected " + count
+                                                + " objects, got " + offsets.size());
+            }
+            out.close();
+            TreeMap<String, Long> sorted = new TreeMap<>(offsets);
+            String name = "pack-" + Utils.sha1(new ArrayList<Object>(sorted.keySet()));
+            File pack = new File(dir, name + ".pack");
+            File idx = new File(dir, name + ".idx");
+            File tempIdx = File.createTempFile("tmp-idx-", ".idx", dir);
+            PackIndex.write(tempIdx, sorted);
+            /* The pack goes first, so an index never names a missing pack. */
+            Files.move(temp.toPath(), pack.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tempIdx.toPath(), idx.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return pack;
+        }
+
+        /** Discards an unfinished pack. */
+        @Override
+        public void close() throws IOException {
+            out.close();
+            temp.delete();
+        }
+
+        /** An object recently added, available as a delta base. */
+        private static class Recent {
+            Recent(byte[] contents, long offset, int depth) {
+                this.contents = contents;
+                this.offset = offset;
+                this.depth = depth;
+            }
+
+            /** The object. */
+            private final byte[] contents;
+            /** Its offset in the pack. */
+            private final long offset;
+            /** Number of deltas that must be applied to read it. */
+            private final int depth;
+        }
+
+        /** The directory of the new pack. */
+        private final File dir;
+        /** Number of objects it is to hold. */
+        private final int count;
+        /** File the pack is written to until it is finished. */
+        private final File temp;
+        /** Stream writing to TEMP. */
+        private final DataOutputStream out;
+        /** Current length of the pack. */
+        private long position;
+        /** Offsets of the objects added so far. */
+        private final HashMap<String, Long> offsets = new HashMap<>();
+        /** The last objects added that may serve as delta bases. */
+        private final ArrayList<Recent> window = new ArrayList<>();
+        /** Total length of the objects in WINDOW. */
+        private long windowBytes;
+        /** Number of objects stored as deltas. */
+        private int deltas;
+    }
+
+    /** Magic number at the start of a pack file. */
+    private static final int PACK_MAGIC = 0x5041434b;
+    /** Version of the pack format. */
+    private static final int VERSION = 1;
+
+    /** The pack file. */
+    private final File file;
+    /** Open channel to FILE. */
+    private final FileChannel channel;
+    /** Map from id to entry offset. */
+    private final PackIndex index;
+    /** Recently read objects, by entry offset. */
+    private final Map<Long, byte[]> bases =
+        new LinkedHashMap<Long, byte[]>(BASE_CACHE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, byte[]> e) {
+                return size() > BASE_CACHE;
+            }
+        };
+}
@@ -0,0 +1,204 @@
+package gitlet;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SortedMap;
+
+/** The index of a Pack: a map from object id to the offset of the
+ *  object in the pack, kept in a file that is memory-mapped rather than
+ *  read, so that opening it costs nothing however many objects it holds.
+ *
+ *  The file starts with the magic number "PIDX" and a version, followed
+ *  by a fanout table of 256 ints, N ids of 20 bytes each in increasing
+ *  order, and their N offsets as 8-byte longs in the same order.  Entry B
+ *  of the fanout table is the number of ids whose first byte is at most
+ *  B, so the ids starting with byte B are the entries from FANOUT[B-1]
+ *  up to FANOUT[B], and a lookup is a binary search of that range alone.
+ *  The last fanout entry is N. */
+class PackIndex implements Iterable<String> {
+
+    /** Bytes in a raw id. */
+    static final int ID_BYTES = 20;
+
+    /** The index in FILE. */
+    PackIndex(File file) {
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                                                    StandardOpenOption.READ)) {
+            buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        }
+        if (buf.capacity() < HEADER + FANOUT_BYTES
+            || buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION) {
+            throw Utils.error("%s is not a pack index", file);
+        }
+        size = fanout(255);
+        idsStart = HEADER + FANOUT_BYTES;
+        offsetsStart = idsStart + (long) size * ID_BYTES;
+        if (buf.capacity() != offsetsStart + (long) size * 8) {
+            throw Utils.error("%s is truncated", file);
+        }
+    }
+
+    /** Returns the number of ids in the index. */
+    int size() {
+        return size;
+    }
+
+    /** Returns the offset of object ID, or -1 if it is not indexed. */
+    long offset(String id) {
+        if (id.length() != Utils.UID_LENGTH) {
+            return -1;
+        }
+        byte[] key = Pack.fromHex(id);
+        int i = lowerBound(key, ID_BYTES * 2);
+        if (i < size && compare(i, key, ID_BYTES * 2) == 0) {
+            return buf.getLong((int) (offsetsStart + (long) i * 8));
+        }
+        return -1;
+    }
+
+    /** Returns true iff object ID is indexed. */
+    boolean contains(String id) {
+        return offset(id) >= 0;
+    }
+
+    /** Adds to RESULT the ids that begin with the hexadecimal numeral
+     *  PREFIX, stopping once RESULT holds LIMIT ids. */
+    void resolvePrefix(String prefix, List<String> result, int limit) {
+        int digits = prefix.length();
+        if (digits == 0 || digits > Utils.UID_LENGTH) {
+            return;
+        }
+        byte[] key = Pack.fromHex(digits % 2 == 0 ? prefix : prefix + "0");
+        for (int i = lowerBound(key, digits);
+             i < size && result.size() < limit && compare(i, key, digits) == 0;
+             i += 1) {
+            result.add(id(i));
+        }
+    }
+
+    /** Returns the Ith id in order. */
+    String id(int i) {
+        byte[] raw = new byte[ID_BYTES];
+        for (int k = 0; k < ID_BYTES; k += 1) {
+            raw[k] = buf.get((int) (idsStart + (long) i * ID_BYTES + k));
+        }
+        return Utils.toHex(raw);
+    }
+
+    /** Iterates over the ids in increasing order. */
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                next += 1;
+                return id(next - 1);
+            }
+
+            /** Position of the next id. */
+            private int next;
+        };
+    }
+
+    /** Returns the number of ids whose first byte is at most B. */
+    private int fanout(int b) {
+        return b < 0 ? 0 : buf.getInt(HEADER + 4 * b);
+    }
+
+    /** Returns the position of the first id whose first DIGITS hex digits
+     *  are not less than those of KEY. */
+    private int lowerBound(byte[] key, int digits) {
+        int first = key[0] & 0xff;
+        int lo = fanout(first - 1), hi = fanout(first);
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(mid, key, digits) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /** Compares the first DIGITS hex digits of the Ith id with those of
+     *  KEY, returning a negative, zero or positive result. */
+    private int compare(int i, byte[] key, int digits) {
+        long base = idsStart + (long) i * ID_BYTES;
+        for (int k = 0; 2 * k < digits; k += 1) {
+            int a = buf.get((int) (base + k)) & 0xff;
+            int b = key[k] & 0xff;
+            if (2 * k + 1 == digits) {
+                a >>>= 4;
+                b >>>= 4;
+            }
+            if (a != b) {
+                return a - b;
+            }
+        }
+        return 0;
+    }
+
+    /** Writes an index of OFFSETS, a map from id to offset, to FILE. */
+    static void write(File file, SortedMap<String, Long> offsets)
+        throws IOException {
+        int[] fanout = new int[256];
+        List<byte[]> ids = new ArrayList<>(offsets.size());
+        for (String id : offsets.keySet()) {
+            byte[] raw = Pack.fromHex(id);
+            ids.add(raw);
+            fanout[raw[0] & 0xff] += 1;
+        }
+        try (DataOutputStream out = new DataOutputStream(
+                 new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            int total = 0;
+            for (int count : fanout) {
+                total += count;
+                out.writeInt(total);
+            }
+            for (byte[] raw : ids) {
+                out.write(raw);
+            }
+            for (Map.Entry<String, Long> e : offsets.entrySet()) {
+                out.writeLong(e.getValue());
+            }
+        }
+    }
+
+    /** Magic number and version at the start of the file. */
+    private static final int MAGIC = 0x50494458, VERSION = 2;
+    /** Bytes before the fanout table. */
+    private static final int HEADER = 8;
+    /** Bytes in the fanout table. */
+    private static final int FANOUT_BYTES = 256 * 4;
+
+    /** The mapped file. */
+    private final MappedByteBuffer buf;
+    /** Number of ids. */
+    private final int size;
+    /** Positions in BUF of the ids and of the offsets. */
+    private final long idsStart, offsetsStart;
+}
@@ -25,5 +25,13 @@ public class Repository {
     /** The .gitlet directory. */
     public static final File GITLET_DIR = join(CWD, ".gitlet");
 
+    /** Moves all objects into a single pack.  Usage: java gitlet.Main gc */
+    public static void gc() {
+        if (!GITLET_DIR.isDirectory()) {
+            throw error("Not in an initialized Gitlet directory.");
+        }
+        message(new ObjectStore(GITLET_DIR).gc());
+    }
+
     /* TODO: fill in the rest of this class. */
 }
@@ -0,0 +1,148 @@
+package gitlet;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static gitlet.Utils.*;
+
+/** A record of the id of each working file as of the last time it was
+ *  hashed, together with the file's modification time, size and file key
+ *  (its inode, on Unix) at that time.  A file whose attributes still
+ *  match its record need not be read again to learn its id.
+ *
+ *  A file changed within the same clock tick as it was last hashed would
+ *  keep its modification time, so a record is only trusted if the file
+ *  had last been modified RACY_NANOS before the cache was saved.
+ *  Otherwise the file is hashed again on the next use.
+ *
+ *  lookup and record may be called from several threads at once. */
+class StatCache {
+
+    /** Minimum age, relative to the time the cache was saved, of a
+     *  modification time that can be trusted. */
+    static final long RACY_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    /** The cache kept in the .gitlet directory GITLETDIR, which is
+     *  empty if it has never been saved or cannot be read. */
+    StatCache(File gitletDir) {
+        file = join(gitletDir, "statcache");
+        long saved = Long.MIN_VALUE;
+        if (file.isFile()) {
+            try (DataInputStream in = new DataInputStream(
+                     new BufferedInputStream(new FileInputStream(file)))) {
+                if (in.readInt() == MAGIC) {
+                    saved = in.readLong();
+                    for (int n = in.readInt(); n > 0; n -= 1) {
+                        String name = in.readUTF();
+                        Entry e = new Entry(in.readLong(), in.readLong(), in.readUTF(),
+                                            in.readUTF());
+                        old.put(name, e);
+                    }
+                }
+            } catch (IOException excp) {
+                old.clear();
+                saved = Long.MIN_VALUE;
+            }
+        }
+        savedAt = saved;
+    }
+
+    /** Returns the id recorded for the file NAME, if ATTRS, its current
+     *  attributes, show it has not changed since; otherwise null. */
+    String lookup(String name, BasicFileAttributes attrs) {
+        Entry e = old.get(name);
+        if (e == null) {
+            return null;
+        }
+        long mtime = attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+        if (e.mtime == mtime && e.size == attrs.size()
+            && e.key.equals(key(attrs)) && mtime < savedAt - RACY_NANOS) {
+            record(name, attrs, e.id);
+            return e.id;
+        }
+        return null;
+    }
+
+    /** Records that the file NAME, with attributes ATTRS, has id ID. */
+    void record(String name, BasicFileAttributes attrs, String id) {
+        fresh.put(name, new Entry(attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS),
+                                  attrs.size(), key(attrs), id));
+    }
+
+    /** Replaces the saved cache with the files looked up or recorded
+     *  since it was read.  Files not seen since then are dropped. */
+    void save() {
+        long now = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+        File temp = join(file.getParentFile(), "statcache.tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                     new BufferedOutputStream(new FileOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeLong(now);
+                out.writeInt(fresh.size());
+                for (Map.Entry<String, Entry> me : fresh.entrySet()) {
+                    Entry e = me.getValue();
+                    out.writeUTF(me.getKey());
+                    out.writeLong(e.mtime);
+                    out.writeLong(e.size);
+                    out.writeUTF(e.key);
+                    out.writeUTF(e.id);
+                }
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        }
+    }
+
+    /** Returns the file key of ATTRS as a string, or "" if the file
+     *  system has none. */
+    private static String key(BasicFileAttributes attrs) {
+        Object key = attrs.fileKey();
+        return key == null ? "" : key.toString();
+    }
+
+    /** What was known about one file. */
+    private static class Entry {
+        Entry(long mtime, long size, String key, String id) {
+            this.mtime = mtime;
+            this.size = size;
+            this.key = key;
+            this.id = id;
+        }
+
+        /** Modification time, in nanoseconds since the epoch. */
+        private final long mtime;
+        /** Length in bytes. */
+        private final long size;
+        /** File key, as by key(). */
+        private final String key;
+        /** Id of the contents. */
+        private final String id;
+    }
+
+    /** Magic number at the start of the file. */
+    private static final int MAGIC = 0x53544331;
+
+    /** Where the cache is saved. */
+    private final File file;
+    /** When the cache was saved, in nanoseconds since the epoch. */
+    private final long savedAt;
+    /** Records as read from FILE. */
+    private final HashMap<String, Entry> old = new HashMap<>();
+    /** Records made or confirmed since. */
+    private final ConcurrentHashMap<String, Entry> fresh = new ConcurrentHashMap<>();
+}
@@ -0,0 +1,231 @@
+package gitlet;
+
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+/** Tests of the commit graph against brute-force ancestor sets. */
+public class TestCommitGraph {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** A history of commits numbered 0 up, each with parents of lower
+     *  numbers, and the set of ancestors of each found by brute force. */
+    private static class History {
+        History(int capacity) {
+            ids = new String[capacity];
+            parents = new int[capacity][];
+            ancestors = new BitSet[capacity];
+        }
+
+        /** Adds commit number SIZE with parents P1 and P2, either of
+         *  which may be -1, and returns its number. */
+        int add(int p1, int p2) {
+            int c = size;
+            size += 1;
+            ids[c] = Utils.sha1("commit " + c);
+            parents[c] = new int[] { p1, p2 };
+            ancestors[c] = new BitSet();
+            ancestors[c].set(c);
+            for (int p : parents[c]) {
+                if (p >= 0) {
+                    ancestors[c].or(ancestors[p]);
+                }
+            }
+            return c;
+        }
+
+        /** Adds commits FROM up to SIZE to B. */
+        void addTo(CommitGraph.Builder b, int from) {
+            for (int c = size - 1; c >= from; c -= 1) {
+                b.add(ids[c], 1000L * c, id(parents[c][0]), id(parents[c][1]));
+            }
+        }
+
+        /** Returns the id of commit C, or null if C is -1. */
+        String id(int c) {
+            return c < 0 ? null : ids[c];
+        }
+
+        /** Number of commits. */
+        int size;
+        /** Id of each commit. */
+        final String[] ids;
+        /** Parents of each commit. */
+        final int[][] parents;
+        /** Each commit and its ancestors. */
+        final BitSet[] ancestors;
+    }
+
+    /** Adds N random commits to H, some of them roots and about one in
+     *  four a merge. */
+    private static void grow(History h, int n, Random r) {
+        for (int i = 0; i < n; i += 1) {
+            int c = h.size;
+            if (c == 0 || r.nextInt(200) == 0) {
+                h.add(-1, -1);
+                continue;
+            }
+            int p1 = Math.max(0, c - 1 - r.nextInt(Math.min(c, 20)));
+            int p2 = c > 1 && r.nextInt(4) == 0 ? r.nextInt(c) : -1;
+            h.add(p1, p2 == p1 ? -1 : p2);
+        }
+    }
+
+    /** Checks G's answers about commits X and Y of H. */
+    private static void check(CommitGraph g, History h, int x, int y) {
+        int px = g.position(h.ids[x]), py = g.position(h.ids[y]);
+        assertEquals(h.ids[x], g.id(px));
+        assertEquals(h.ancestors[y].get(x), g.isAncestor(px, py));
+        BitSet common = (BitSet) h.ancestors[x].clone();
+        common.and(h.ancestors[y]);
+        int split = g.splitPoint(px, py);
+        if (common.isEmpty()) {
+            assertEquals(-1, split);
+            return;
+        }
+        assertTrue(split >= 0);
+        int s = Arrays.asList(h.ids).indexOf(g.id(split));
+        assertTrue(common.get(s));
+        for (int c = common.nextSetBit(0); c >= 0; c = common.nextSetBit(c + 1)) {
+            assertFalse(c != s && h.ancestors[c].get(s));
+        }
+    }
+
+    /** Checks G's answers about random pairs of commits of H, and about
+     *  each commit and itself. */
+    private static void checkAll(CommitGraph g, History h, Random r) {
+        assertEquals(h.size, g.size());
+        for (int t = 0; t < 2000; t += 1) {
+            check(g, h, r.nextInt(h.size), r.nextInt(h.size));
+        }
+        for (int c = 0; c < h.size; c += 1) {
+            check(g, h, c, c);
+            assertEquals(g.position(h.ids[c]), g.splitPoint(g.position(h.ids[c]),
+                                                            g.position(h.ids[c])));
+        }
+    }
+
+    @Test
+    public void testRandomHistory() throws Exception {
+        Random r = new Random(61);
+        History h = new History(2000);
+        grow(h, 2000, r);
+        CommitGraph.Builder b = new CommitGraph.Builder();
+        h.addTo(b, 0);
+        checkAll(b.build(), h, r);
+        File file = folder.newFile();
+        b.write(file);
+        checkAll(new CommitGraph(file), h, r);
+    }
+
+    @Test
+    public void testCrissCrossMerge() {
+        History h = new History(8);
+        int root = h.add(-1, -1);
+        int a1 = h.add(root, -1);
+        int b1 = h.add(root, -1);
+        int a2 = h.add(a1, b1);
+        int b2 = h.add(b1, a1);
+        int a3 = h.add(a2, -1);
+        int b3 = h.add(b2, -1);
+        CommitGraph.Builder b = new CommitGraph.Builder();
+        h.addTo(b, 0);
+        CommitGraph g = b.build();
+        for (int x = 0; x < h.size; x += 1) {
+            for (int y = 0; y < h.size; y += 1) {
+                check(g, h, x, y);
+            }
+        }
+        String split = g.splitPoint(h.ids[a3], h.ids[b3]);
+        assertTrue(split.equals(h.ids[a1]) || split.equals(h.ids[b1]));
+        assertEquals(h.ids[root], g.splitPoint(h.ids[a1], h.ids[b1]));
+    }
+
+    @Test
+    public void testBuilderFromGraph() throws Exception {
+        Random r = new Random(61);
+        History h = new History(2000);
+        grow(h, 1000, r);
+        CommitGraph.Builder b = new CommitGraph.Builder();
+        h.addTo(b, 0);
+        File file = folder.newFile();
+        b.write(file);
+        grow(h, 1000, r);
+        CommitGraph.Builder more = new CommitGraph.Builder(new CommitGraph(file));
+        h.addTo(more, 1000);
+        more.write(file);
+        checkAll(new CommitGraph(file), h, r);
+    }
+
+    @Test
+    public void testUnknownCommits() {
+        History h = new History(2);
+        h.add(-1, -1);
+        CommitGraph.Builder b = new CommitGraph.Builder();
+        h.addTo(b, 0);
+        CommitGraph g = b.build();
+        assertEquals(-1, g.position(Utils.sha1("other")));
+        assertEquals(-1, g.position("00"));
+        try {
+            g.splitPoint(h.ids[0], Utils.sha1("other"));
+            fail("found a split point with an unknown commit");
+        } catch (GitletException excp) {
+            assertEquals("No commit with that id exists.", excp.getMessage());
+        }
+        b.add(Utils.sha1("orphan"), 0, Utils.sha1("missing"), null);
+        try {
+            b.build();
+            fail("built a graph with a missing parent");
+        } catch (GitletException excp) {
+            assertTrue(excp.getMessage().startsWith("Parent"));
+        }
+    }
+
+    /** Writes N as the commit count of the graph in FILE. */
+    private static void setCount(File file, int n) throws Exception {
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.seek(8);
+            out.writeInt(n);
+        }
+    }
+
+    @Test
+    public void testCorruptFiles() throws Exception {
+        History h = new History(10);
+        grow(h, 10, new Random(61));
+        CommitGraph.Builder b = new CommitGraph.Builder();
+        h.addTo(b, 0);
+        File file = folder.newFile();
+        for (int n : new int[] { -1, Integer.MIN_VALUE, 11, 9, Integer.MAX_VALUE }) {
+            b.write(file);
+            setCount(file, n);
+            try {
+                new CommitGraph(file);
+                fail("read a graph of " + n + " commits");
+            } catch (GitletException excp) {
+                assertTrue(excp.getMessage().endsWith("is truncated"));
+            }
+        }
+        b.write(file);
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.setLength(out.length() - 1);
+        }
+        try {
+            new CommitGraph(file);
+            fail("read a truncated graph");
+        } catch (GitletException excp) {
+            assertTrue(excp.getMessage().endsWith("is truncated"));
+        }
+        b.write(file);
+        assertEquals(10, new CommitGraph(file).size());
+    }
+}
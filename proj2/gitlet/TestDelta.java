@@ -0,0 +1,89 @@
+package gitlet;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/** Tests of binary deltas. */
+public class TestDelta {
+
+    private static byte[] randomBytes(Random r, int n) {
+        byte[] b = new byte[n];
+        r.nextBytes(b);
+        return b;
+    }
+
+    /** Returns B with a few runs of bytes replaced, inserted and
+     *  deleted. */
+    private static byte[] edit(Random r, byte[] b) {
+        byte[] result = b;
+        for (int k = r.nextInt(5); k >= 0; k -= 1) {
+            int at = result.length == 0 ? 0 : r.nextInt(result.length);
+            int cut = Math.min(result.length - at, r.nextInt(40));
+            byte[] insert = randomBytes(r, r.nextInt(40));
+            byte[] next = new byte[result.length - cut + insert.length];
+            System.arraycopy(result, 0, next, 0, at);
+            System.arraycopy(insert, 0, next, at, insert.length);
+            System.arraycopy(result, at + cut, next, at + insert.length,
+                             result.length - at - cut);
+            result = next;
+        }
+        return result;
+    }
+
+    private static void assertRoundTrip(byte[] base, byte[] target) {
+        byte[] delta = Delta.create(base, target);
+        assertArrayEquals(target, Delta.apply(base, delta));
+    }
+
+    @Test
+    public void testEdgeCases() {
+        Random r = new Random(61);
+        byte[] some = randomBytes(r, 100);
+        assertRoundTrip(new byte[0], new byte[0]);
+        assertRoundTrip(new byte[0], some);
+        assertRoundTrip(some, new byte[0]);
+        assertRoundTrip(some, some);
+        assertRoundTrip(some, Arrays.copyOf(some, 15));
+        assertRoundTrip(new byte[1000], new byte[2000]);
+    }
+
+    @Test
+    public void testRandomEdits() {
+        Random r = new Random(61);
+        for (int t = 0; t < 500; t += 1) {
+            byte[] base = randomBytes(r, r.nextInt(5000));
+            byte[] target = edit(r, base);
+            assertRoundTrip(base, target);
+            assertRoundTrip(target, base);
+        }
+    }
+
+    @Test
+    public void testSimilarTargetsGiveSmallDeltas() {
+        Random r = new Random(61);
+        byte[] base = randomBytes(r, 10000);
+        byte[] target = base.clone();
+        target[5000] ^= 1;
+        assertTrue(Delta.create(base, target).length < 100);
+    }
+
+    @Test
+    public void testLargeBase() {
+        Random r = new Random(61);
+        byte[] base = randomBytes(r, 8 << 20);
+        byte[] target = edit(r, base);
+        byte[] delta = Delta.create(base, target);
+        assertTrue(delta.length < 1000);
+        assertArrayEquals(target, Delta.apply(base, delta));
+    }
+
+    @Test(expected = GitletException.class)
+    public void testWrongBase() {
+        Random r = new Random(61);
+        byte[] base = randomBytes(r, 100);
+        Delta.apply(randomBytes(r, 101), Delta.create(base, base));
+    }
+}
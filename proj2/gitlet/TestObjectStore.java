@@ -0,0 +1,332 @@
+package gitlet;
+
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/** Tests of the object store, loose and packed. */
+public class TestObjectStore {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** Adds 200 versions of a growing text file, each with one more line
+     *  than the last, and 200 small objects to STORE, and returns a map
+     *  from the ids of all of them to their contents. */
+    private static Map<String, byte[]> fill(ObjectStore store, Random r) {
+        Map<String, byte[]> all = new HashMap<>();
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 2000; i += 1) {
+            text.append("line ").append(r.nextInt(1000)).append('\n');
+        }
+        for (int v = 0; v < 200; v += 1) {
+            text.insert(r.nextInt(text.length()), "edit " + v + "\n");
+            byte[] version = text.toString().getBytes(StandardCharsets.UTF_8);
+            all.put(store.put(version), version);
+            byte[] small = ("tiny" + v).getBytes(StandardCharsets.UTF_8);
+            all.put(store.put(small), small);
+        }
+        return all;
+    }
+
+    /** Returns the names of the files in the packs directory of the store
+     *  in GITLETDIR. */
+    private static String[] packFiles(File gitletDir) {
+        String[] names = new File(gitletDir, "packs").list();
+        Arrays.sort(names);
+        return names;
+    }
+
+    private static void assertHolds(ObjectStore store, Map<String, byte[]> all) {
+        for (Map.Entry<String, byte[]> e : all.entrySet()) {
+            assertTrue(store.contains(e.getKey()));
+            assertArrayEquals(e.getValue(), store.get(e.getKey()));
+        }
+    }
+
+    @Test
+    public void testGcKeepsEveryObject() throws Exception {
+        File dir = folder.newFolder();
+        ObjectStore store = new ObjectStore(dir);
+        Map<String, byte[]> all = fill(store, new Random(61));
+        assertHolds(store, all);
+        String summary = store.gc();
+        assertTrue(summary, summary.startsWith("Packed 400 objects"));
+        assertFalse(summary, summary.contains("(0 as deltas)"));
+        assertEquals(0, new File(dir, "objects").list().length);
+        assertEquals(2, packFiles(dir).length);
+        assertHolds(store, all);
+        assertHolds(new ObjectStore(dir), all);
+
+        byte[] more = "after".getBytes(StandardCharsets.UTF_8);
+        all.put(store.put(more), more);
+        store.gc();
+        assertEquals(2, packFiles(dir).length);
+        assertHolds(new ObjectStore(dir), all);
+    }
+
+    @Test
+    public void testGcTwiceGivesSamePack() throws Exception {
+        File dir = folder.newFolder();
+        ObjectStore store = new ObjectStore(dir);
+        Map<String, byte[]> all = fill(store, new Random(61));
+        store.gc();
+        String[] first = packFiles(dir);
+        String summary = new ObjectStore(dir).gc();
+        assertTrue(summary, summary.contains("from 0 loose objects and 0 packs"));
+        assertArrayEquals(first, packFiles(dir));
+        assertHolds(new ObjectStore(dir), all);
+    }
+
+    @Test
+    public void testLargeObjectsAreNotDeltified() throws Exception {
+        File dir = folder.newFolder();
+        ObjectStore store = new ObjectStore(dir);
+        Random r = new Random(61);
+        Map<String, byte[]> all = new HashMap<>();
+        for (int size : new int[] { Pack.Writer.MAX_DELTA_SIZE / 2,
+                                    2 * Pack.Writer.MAX_DELTA_SIZE }) {
+            byte[] version = new byte[size];
+            r.nextBytes(version);
+            for (int v = 0; v < 3; v += 1) {
+                version = version.clone();
+                version[r.nextInt(size)] ^= 1;
+                all.put(store.put(version), version);
+            }
+        }
+        String summary = store.gc();
+        assertTrue(summary, summary.startsWith("Packed 6 objects (2 as deltas)"));
+        assertHolds(new ObjectStore(dir), all);
+    }
+
+    @Test
+    public void testGcWithNothingToPack() throws Exception {
+        assertEquals("Nothing to pack.", new ObjectStore(folder.newFolder()).gc());
+    }
+
+    @Test
+    public void testPackedContentsAreCopies() throws Exception {
+        File dir = folder.newFolder();
+        ObjectStore store = new ObjectStore(dir);
+        byte[] contents = "contents".getBytes(StandardCharsets.UTF_8);
+        String id = store.put(contents);
+        store.gc();
+        store.get(id)[0] = 'X';
+        assertArrayEquals(contents, store.get(id));
+    }
+
+    @Test
+    public void testLargeObjectsStayLoose() throws Exception {
+        File dir = folder.newFolder();
+        ObjectStore store = new ObjectStore(dir);
+        File big = folder.newFile();
+        try (RandomAccessFile out = new RandomAccessFile(big, "rw")) {
+            out.setLength(ObjectStore.MAX_PACKED + 1);
+        }
+        String bigId = store.putFile(big);
+        String smallId = store.put("small".getBytes(StandardCharsets.UTF_8));
+        String summary = store.gc();
+        assertTrue(summary, summary.startsWith("Packed 1 objects"));
+        File loose = Utils.join(dir, "objects", bigId.substring(0, 2),
+                                bigId.substring(2));
+        assertTrue(loose.isFile());
+        assertFalse(Utils.join(dir, "objects", smallId.substring(0, 2)).exists());
+        assertTrue(new ObjectStore(dir).contains(bigId));
+        assertTrue(new ObjectStore(dir).contains(smallId));
+    }
+
+    /** Returns the ids among IDS that start with PREFIX. */
+    private static List<String> matching(List<String> ids, String prefix) {
+        List<String> result = new ArrayList<>();
+        for (String id : ids) {
+            if (id.startsWith(prefix)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    /** Checks that every prefix of every id in IDS resolves as it should
+     *  in STORE, which holds exactly IDS. */
+    private static void assertPrefixesResolve(ObjectStore store, List<String> ids) {
+        for (String id : ids) {
+            for (int digits = 1; digits <= id.length(); digits += 1) {
+                String prefix = id.substring(0, digits);
+                List<String> found = matching(ids, prefix);
+                if (found.size() == 1) {
+                    assertEquals(prefix, id, store.resolvePrefix(prefix));
+                } else {
+                    try {
+                        store.resolvePrefix(prefix);
+                        fail(prefix + " is ambiguous");
+                    } catch (GitletException excp) {
+                        assertEquals("Ambiguous id " + prefix + ".", excp.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPrefixesOfEveryLength() throws Exception {
+        File dir = folder.newFolder();
+        ObjectStore store = new ObjectStore(dir);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 300; i += 1) {
+            ids.add(store.put(("packed" + i).getBytes(StandardCharsets.UTF_8)));
+        }
+        assertPrefixesResolve(store, ids);
+        store.gc();
+        assertPrefixesResolve(store, ids);
+        for (int i = 0; i < 300; i += 1) {
+            ids.add(store.put(("loose" + i).getBytes(StandardCharsets.UTF_8)));
+        }
+        assertPrefixesResolve(store, ids);
+        assertPrefixesResolve(new ObjectStore(dir), ids);
+    }
+
+    @Test
+    public void testOneDigitPrefix() throws Exception {
+        File dir = folder.newFolder();
+        ObjectStore store = new ObjectStore(dir);
+        String id = store.put("only".getBytes(StandardCharsets.UTF_8));
+        assertEquals(id, store.resolvePrefix(id.substring(0, 1)));
+        store.gc();
+        assertEquals(id, store.resolvePrefix(id.substring(0, 1)));
+    }
+
+    @Test
+    public void testAmbiguityAcrossPackAndLoose() throws Exception {
+        File dir = folder.newFolder();
+        ObjectStore store = new ObjectStore(dir);
+        String packed = store.put("0".getBytes(StandardCharsets.UTF_8));
+        store.gc();
+        String loose = null;
+        for (int i = 1; loose == null; i += 1) {
+            String id = Utils.sha1(("" + i).getBytes(StandardCharsets.UTF_8));
+            if (id.substring(0, 3).equals(packed.substring(0, 3))) {
+                loose = store.put(("" + i).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int common = 3;
+        while (packed.charAt(common) == loose.charAt(common)) {
+            common += 1;
+        }
+        try {
+            store.resolvePrefix(packed.substring(0, common));
+            fail("prefix shared by a packed and a loose object resolved");
+        } catch (GitletException excp) {
+            assertTrue(excp.getMessage().startsWith("Ambiguous id"));
+        }
+        assertEquals(packed, store.resolvePrefix(packed.substring(0, common + 1)));
+        assertEquals(loose, store.resolvePrefix(loose.substring(0, common + 1)));
+    }
+
+    @Test
+    public void testUnresolvablePrefixes() throws Exception {
+        File dir = folder.newFolder();
+        ObjectStore store = new ObjectStore(dir);
+        String id = store.put("only".getBytes(StandardCharsets.UTF_8));
+        String other = id.charAt(0) == '0' ? "1" : "0";
+        assertNull(store.resolvePrefix(other));
+        assertNull(store.resolvePrefix(other + id.substring(1)));
+        assertNull(store.resolvePrefix(""));
+        assertNull(store.resolvePrefix(id + "0"));
+        assertNull(store.resolvePrefix("xyz"));
+        assertNull(store.resolvePrefix(id.substring(0, 5) + "g"));
+        assertEquals(id, store.resolvePrefix(id.substring(0, 7).toUpperCase()));
+        store.gc();
+        assertNull(store.resolvePrefix(other));
+        assertNull(store.resolvePrefix(id.substring(0, 5) + "g"));
+        assertEquals(id, store.resolvePrefix(id.substring(0, 7).toUpperCase()));
+        assertEquals(id, store.resolvePrefix(id.toUpperCase()));
+    }
+
+    /** Returns the names of the temporary files left in the objects
+     *  directory of the store in GITLETDIR. */
+    private static List<String> tempFiles(File gitletDir) {
+        List<String> result = new ArrayList<>();
+        String[] names = new File(gitletDir, "objects").list();
+        if (names != null) {
+            for (String name : names) {
+                if (name.startsWith("tmp-")) {
+                    result.add(name);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testPutFileAndWriteTo() throws Exception {
+        File dir = folder.newFolder();
+        ObjectStore store = new ObjectStore(dir);
+        Random r = new Random(61);
+        List<byte[]> contents = new ArrayList<>();
+        contents.add(new byte[0]);
+        for (int n : new int[] { 1, 100, Utils.STREAM_BUFFER_SIZE,
+                                 3 * Utils.STREAM_BUFFER_SIZE + 7 }) {
+            byte[] b = new byte[n];
+            r.nextBytes(b);
+            contents.add(b);
+        }
+        List<String> ids = new ArrayList<>();
+        for (byte[] b : contents) {
+            File in = folder.newFile();
+            Files.write(in.toPath(), b);
+            String id = store.putFile(in);
+            assertEquals(Utils.sha1(b), id);
+            assertEquals(id, store.put(b));
+            assertArrayEquals(b, store.get(id));
+            ids.add(id);
+        }
+        for (int pass = 0; pass < 2; pass += 1) {
+            for (int i = 0; i < contents.size(); i += 1) {
+                File out = folder.newFile();
+                Files.write(out.toPath(), new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9 });
+                store.writeTo(ids.get(i), out);
+                assertArrayEquals(contents.get(i), Files.readAllBytes(out.toPath()));
+            }
+            store.gc();
+        }
+        assertTrue(tempFiles(dir).isEmpty());
+    }
+
+    @Test
+    public void testPutFileOfExistingObject() throws Exception {
+        File dir = folder.newFolder();
+        ObjectStore store = new ObjectStore(dir);
+        File in = folder.newFile();
+        Files.write(in.toPath(), "twice".getBytes(StandardCharsets.UTF_8));
+        String id = store.putFile(in);
+        assertEquals(id, store.putFile(in));
+        store.gc();
+        assertEquals(id, store.putFile(in));
+        assertTrue(tempFiles(dir).isEmpty());
+        assertEquals(0, new File(dir, "objects").list().length);
+    }
+
+    @Test
+    public void testFailedPutFileLeavesNoTemp() throws Exception {
+        File dir = folder.newFolder();
+        ObjectStore store = new ObjectStore(dir);
+        try {
+            store.putFile(new File(folder.getRoot(), "missing"));
+            fail("added a missing file");
+        } catch (IllegalArgumentException excp) {
+            assertTrue(tempFiles(dir).isEmpty());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package gitlet;
+
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/** Tests of hashing working files through the stat cache. */
+public class TestWorkingTree {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static void write(File file, String contents) throws Exception {
+        Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Returns the ids of the files in DIR, hashed with a cache freshly
+     *  read from GITLETDIR. */
+    private static TreeMap<String, String> hash(File dir, File gitletDir) {
+        return new WorkingTree(dir, new StatCache(gitletDir)).hashFiles();
+    }
+
+    /** Sets the modification time of FILE to MILLIS. */
+    private static void touch(File file, long millis) throws Exception {
+        Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(millis));
+    }
+
+    @Test
+    public void testHashFiles() throws Exception {
+        File dir = folder.newFolder();
+        File gitletDir = folder.newFolder();
+        TreeMap<String, String> expected = new TreeMap<>();
+        for (int i = 0; i < 3 * WorkingTree.LEAF_SIZE + 1; i += 1) {
+            write(new File(dir, "f" + i), "contents " + i);
+            expected.put("f" + i, Utils.sha1("contents " + i));
+        }
+        new File(dir, "subdir").mkdir();
+        assertEquals(expected, hash(dir, gitletDir));
+        assertEquals(expected, hash(dir, gitletDir));
+        new File(dir, "f0").delete();
+        expected.remove("f0");
+        assertEquals(expected, hash(dir, gitletDir));
+    }
+
+    @Test
+    public void testRacyRewriteIsRehashed() throws Exception {
+        File dir = folder.newFolder();
+        File gitletDir = folder.newFolder();
+        File file = new File(dir, "f");
+        write(file, "before");
+        long mtime = file.lastModified();
+        assertEquals(Utils.sha1("before"), hash(dir, gitletDir).get("f"));
+        write(file, "after!");
+        touch(file, mtime);
+        assertEquals(Utils.sha1("after!"), hash(dir, gitletDir).get("f"));
+        write(file, "again!");
+        touch(file, mtime);
+        assertEquals(Utils.sha1("again!"), hash(dir, gitletDir).get("f"));
+    }
+
+    @Test
+    public void testOldUnchangedFilesAreNotRead() throws Exception {
+        File dir = folder.newFolder();
+        File gitletDir = folder.newFolder();
+        File file = new File(dir, "f");
+        write(file, "before");
+        long old = System.currentTimeMillis()
+            - TimeUnit.NANOSECONDS.toMillis(2 * StatCache.RACY_NANOS);
+        touch(file, old);
+        assertEquals(Utils.sha1("before"), hash(dir, gitletDir).get("f"));
+        write(file, "after!");
+        touch(file, old);
+        assertEquals(Utils.sha1("before"), hash(dir, gitletDir).get("f"));
+        touch(file, old + 1000);
+        assertEquals(Utils.sha1("after!"), hash(dir, gitletDir).get("f"));
+    }
+
+    @Test
+    public void testAddFilesStoresEachObject() throws Exception {
+        File dir = folder.newFolder();
+        File gitletDir = folder.newFolder();
+        long old = System.currentTimeMillis()
+            - TimeUnit.NANOSECONDS.toMillis(2 * StatCache.RACY_NANOS);
+        for (int i = 0; i < 2 * WorkingTree.LEAF_SIZE; i += 1) {
+            write(new File(dir, "f" + i), "contents " + (i % 5));
+            touch(new File(dir, "f" + i), old);
+        }
+        assertEquals(hash(dir, gitletDir), hash(dir, gitletDir));
+        ObjectStore store = new ObjectStore(folder.newFolder());
+        TreeMap<String, String> ids =
+            new WorkingTree(dir, new StatCache(gitletDir)).addFiles(store);
+        assertEquals(2 * WorkingTree.LEAF_SIZE, ids.size());
+        for (Map.Entry<String, String> e : ids.entrySet()) {
+            assertArrayEquals(Files.readAllBytes(new File(dir, e.getKey()).toPath()),
+                              store.get(e.getValue()));
+        }
+    }
+}
@@ -6,12 +6,17 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
@@ -63,6 +68,54 @@ class Utils {
         return sha1(vals.toArray(new Object[vals.size()]));
     }
 
+    /** The size of the buffer used to stream file contents. */
+    static final int STREAM_BUFFER_SIZE = 1 << 16;
+
+    /** Returns the SHA-1 hash of the contents of FILE, which must be a
+     *  normal file.  Unlike sha1(readContents(FILE)), this reads FILE
+     *  a buffer at a time, so it hashes files of any size in constant
+     *  space.  Throws IllegalArgumentException in case of problems. */
+    static String sha1(File file) {
+        if (!file.isFile()) {
+            throw new IllegalArgumentException("must be a normal file");
+        }
+        MessageDigest md = sha1Digest();
+        try (InputStream in = new DigestInputStream(
+                 Channels.newInputStream(FileChannel.open(file.toPath(),
+                                                          StandardOpenOption.READ)),
+                 md)) {
+            byte[] buf = new byte[STREAM_BUFFER_SIZE];
+            while (in.read(buf) >= 0) {
+                continue;
+            }
+        } catch (IOException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        }
+        return toHex(md.digest());
+    }
+
+    /** Returns a new SHA-1 MessageDigest, for hashing data that arrive a
+     *  piece at a time.  toHex(MD.digest()) gives the same result as
+     *  sha1 of the concatenated pieces. */
+    static MessageDigest sha1Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException excp) {
+            throw new IllegalArgumentException("System does not support SHA-1");
+        }
+    }
+
+    /** Returns the bytes of DIGEST as a hexadecimal numeral, two digits
+     *  per byte. */
+    static String toHex(byte[] digest) {
+        StringBuilder result = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            result.append(Character.forDigit((b >> 4) & 0xf, 16));
+            result.append(Character.forDigit(b & 0xf, 16));
+        }
+        return result.toString();
+    }
+
     /* FILE DELETION */
 
     /** Deletes FILE if it exists and is not a directory.  Returns true
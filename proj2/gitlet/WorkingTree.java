@@ -0,0 +1,134 @@
+package gitlet;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static gitlet.Utils.*;
+
+/** The plain files of a working directory and their ids, as needed by
+ *  status (to compare them with the staging area and the head commit)
+ *  and by adding many files at once.
+ *
+ *  Files are hashed in parallel on a ForkJoinPool of at most MAX_THREADS
+ *  threads, which the list of files is split over in runs of LEAF_SIZE.
+ *  A StatCache spares the hashing of files that have not changed since
+ *  they were last hashed, so on a mostly unchanged tree the cost is one
+ *  stat per file. */
+class WorkingTree {
+
+    /** Most threads used for hashing. */
+    static final int MAX_THREADS = 8;
+    /** Number of files one task handles without splitting further. */
+    static final int LEAF_SIZE = 16;
+
+    /** The working directory DIR, whose file ids are cached in CACHE. */
+    WorkingTree(File dir, StatCache cache) {
+        this.dir = dir;
+        this.cache = cache;
+    }
+
+    /** Returns a map from the name of each plain file in the directory to
+     *  its id. */
+    TreeMap<String, String> hashFiles() {
+        return run(null);
+    }
+
+    /** Adds each plain file in the directory to STORE, and returns a map
+     *  from the name of each to its id.  Changed files are read only
+     *  once, by ObjectStore.putFile, which hashes them as it writes them;
+     *  unchanged files whose objects exist are not read at all. */
+    TreeMap<String, String> addFiles(ObjectStore store) {
+        return run(store);
+    }
+
+    /** Hashes the files, storing them in STORE if it is not null, then
+     *  saves the cache and returns the names and ids. */
+    private TreeMap<String, String> run(ObjectStore store) {
+        List<String> names = plainFilenamesIn(dir);
+        if (names == null) {
+            throw error("%s is not a directory.", dir);
+        }
+        String[] ids = new String[names.size()];
+        int threads = Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors());
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new HashTask(names, ids, store, 0, names.size()));
+        } finally {
+            pool.shutdown();
+        }
+        cache.save();
+        TreeMap<String, String> result = new TreeMap<>();
+        for (int i = 0; i < ids.length; i += 1) {
+            if (ids[i] != null) {
+                result.put(names.get(i), ids[i]);
+            }
+        }
+        return result;
+    }
+
+    /** Returns the id of the file NAME, storing it in STORE unless that
+     *  is null, or null if the file disappeared. */
+    private String hash(String name, ObjectStore store) {
+        File file = join(dir, name);
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        } catch (IOException excp) {
+            return null;
+        }
+        String id = cache.lookup(name, attrs);
+        if (id != null && (store == null || store.contains(id))) {
+            return id;
+        }
+        id = store == null ? sha1(file) : store.putFile(file);
+        cache.record(name, attrs, id);
+        return id;
+    }
+
+    /** Hashes the files NAMES[LO .. HI) into IDS, splitting in half until
+     *  there are at most LEAF_SIZE of them. */
+    private class HashTask extends RecursiveAction {
+        HashTask(List<String> names, String[] ids, ObjectStore store, int lo, int hi) {
+            this.names = names;
+            this.ids = ids;
+            this.store = store;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= LEAF_SIZE) {
+                for (int i = lo; i < hi; i += 1) {
+                    ids[i] = hash(names.get(i), store);
+                }
+            } else {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new HashTask(names, ids, store, lo, mid),
+                          new HashTask(names, ids, store, mid, hi));
+            }
+        }
+
+        /** The names of all files. */
+        private final List<String> names;
+        /** Where their ids go. */
+        private final String[] ids;
+        /** Where their contents go, or null. */
+        private final ObjectStore store;
+        /** The range of files for this task. */
+        private final int lo, hi;
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    /** The working directory. */
+    private final File dir;
+    /** Ids of its files as of the last time they were hashed. */
+    private final StatCache cache;
+}